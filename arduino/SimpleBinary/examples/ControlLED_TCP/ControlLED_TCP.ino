@@ -81,6 +81,8 @@ void loop() {
       else
       {
          connectWait = false;
+         //offer sequence numbers - binding can then send more requests at once (bridge parameter requestWindow)
+         //items.enableSequence(4);
          //send "Hi" message to server
          items.sendHi();
          //on connect mark data to send
@@ -3,7 +3,7 @@
 // Name:        simpleBinary.cpp
 // Author:      Vita Tucek
 // Created:     20.8.2015
-// Modified:    11.12.2021
+// Modified:    18.10.2026
 // License:     MIT
 // Description: Implementation of SimpleBinary protocol for OpenHAB
 //
@@ -168,14 +168,15 @@ void simpleBinary::processSerial()
    //set last receive time
    receiveTime = now;
    
-   //read all incoming data
-   while (serial->available() > 0) 
+   //read incoming data (rest stay in stream for next call)
+   while (serial->available() > 0 && serbuflen < (int)sizeof(serbuf)) 
    {
       int data = serial->read();
 
       serbuf[serbuflen++] = data;
    }
 
+   //more requests can be received at once when sequence numbers are enabled - process all of them
    while(serbuflen > 3)
    {     
       //search address
@@ -194,17 +195,26 @@ void simpleBinary::processSerial()
       if(serbuflen < 4)
          return;
 
+      //sequence byte before CRC
+      int seq = _sequenced ? 1 : 0;
       int address;
+      int len;
       char crc;
               
       switch(serbuf[1])
       {
          //new data
          case (char)0xD0:  
-               crc = CRC8::evalCRC(serbuf,3);
+            len = 4 + seq;
+            if(serbuflen < len)
+               return;
+
+            crc = CRC8::evalCRC(serbuf,len-1);
 
-            if(crc == serbuf[3])
+            if(crc == serbuf[len-1])
             {
+               readSequence(len);
+
                if(serbuf[2] == 0x00 || serbuf[2] == 0x01)
                {
                   if(serbuf[2] == 0x01)
@@ -225,17 +235,19 @@ void simpleBinary::processSerial()
             else
                sendWrongData(crc);
 #endif               
-            serbuflen = 0;
-            return;
+            consume(len);
+            break;
             //read data  
          case (char)0xD1: 
-            if(serbuflen < 5)
+            len = 5 + seq;
+            if(serbuflen < len)
                return;
 
-            crc = CRC8::evalCRC(serbuf,4);
+            crc = CRC8::evalCRC(serbuf,len-1);
 
-            if(crc == serbuf[4])
+            if(crc == serbuf[len-1])
             {
+               readSequence(len);
                address =  serbuf[2] | (serbuf[3] << 8); 
                readData(address); 
             }
@@ -243,14 +255,17 @@ void simpleBinary::processSerial()
             else
                sendWrongData(crc);
 #endif
-            serbuflen = 0;
-            return;
+            consume(len);
+            break;
          //welcome   
-         case (byte)0xD2:
+         case (char)0xD2:
             crc = CRC8::evalCRC(serbuf, 3);
             if (crc == serbuf[3])
             {            
                _uartAddress = serbuf[2];
+               //master doesn't use sequence numbers
+               _sequenced = false;
+               _welcomePending = false;
                sendOK();
             }
 #ifdef SEND_PACKET_WRONG_CRC
@@ -259,10 +274,10 @@ void simpleBinary::processSerial()
                sendWrongData(crc);               
             }
 #endif
-            serbuflen = 0;          
-            return;
+            consume(4);
+            break;
          //deny   
-         case (byte)0xD3:
+         case (char)0xD3:
             crc = CRC8::evalCRC(serbuf, 3);
             if (crc == serbuf[3])
             {            
@@ -275,24 +290,49 @@ void simpleBinary::processSerial()
                sendWrongData(crc);               
             }
 #endif
-            serbuflen = 0;          
-            return;            
+            consume(4);
+            break;
+         //welcome with sequence numbers
+         case (char)0xD4:
+            if(serbuflen < 5)
+               return;
+
+            crc = CRC8::evalCRC(serbuf, 4);
+            if (crc == serbuf[4])
+            {            
+               _uartAddress = serbuf[2];
+               //serbuf[3] holds request window used by master
+               _sequenced = true;
+               _welcomePending = false;
+               //answer carries sequence 0 already
+               sendOK();
+            }
+#ifdef SEND_PACKET_WRONG_CRC
+            else
+            {
+               sendWrongData(crc);               
+            }
+#endif
+            consume(5);
+            break;
             //write byte
          case (char)0xDA:
-            if(serbuflen < 6)
+            len = 6 + seq;
+            if(serbuflen < len)
                return;
             //crc check
-            crc = CRC8::evalCRC(serbuf,5);
+            crc = CRC8::evalCRC(serbuf,len-1);
             
-            if(serbuf[5] == crc)   
+            if(serbuf[len-1] == crc)   
             {                       
+               readSequence(len);
                //address
                address = serbuf[2] | (serbuf[3] << 8);
                //check address
                if(!checkAddress(address))
                   sendInvalidAddress();               
                //write data into memory
-               if(saveByte(address,serbuf+4))
+               else if(saveByte(address,serbuf+4))
                   sendOK();
                else
                   sendSavingError();
@@ -301,26 +341,27 @@ void simpleBinary::processSerial()
             else
                sendWrongData(crc);
 #endif
-            //clear buffer
-            serbuflen = 0;
-            return;
+            consume(len);
+            break;
             //write word
          case (char)0xDB:
-            if(serbuflen < 7)
+            len = 7 + seq;
+            if(serbuflen < len)
                return;
 
             //crc check
-            crc = CRC8::evalCRC(serbuf,6);
+            crc = CRC8::evalCRC(serbuf,len-1);
 
-            if(serbuf[6] == crc)
+            if(serbuf[len-1] == crc)
             {
+               readSequence(len);
                //address 
                address = serbuf[2] | (serbuf[3] << 8);
                //check address
                if(!checkAddress(address))
                   sendInvalidAddress();                 
                //write data into memory
-               if(saveWord(address,serbuf+4))
+               else if(saveWord(address,serbuf+4))
                   sendOK();
                else
                   sendSavingError();               
@@ -329,20 +370,21 @@ void simpleBinary::processSerial()
             else            
                sendWrongData(crc);
 #endif
-            //clear buffer
-            serbuflen = 0;
-            return;
+            consume(len);
+            break;
             //write dword
          case (char)0xDC:
          case (char)0xDD:
-            if(serbuflen < 9)
+            len = 9 + seq;
+            if(serbuflen < len)
                return;
 
             //crc check
-            crc = CRC8::evalCRC(serbuf,8);
+            crc = CRC8::evalCRC(serbuf,len-1);
             
-            if(serbuf[8] == crc)            
+            if(serbuf[len-1] == crc)            
             {
+               readSequence(len);
                //address
                address = serbuf[2] | (serbuf[3] << 8);
 
@@ -350,7 +392,7 @@ void simpleBinary::processSerial()
                if(!checkAddress(address))
                   sendInvalidAddress();
                //write data into memory
-               if(saveDword(address,serbuf+4))
+               else if(saveDword(address,serbuf+4))
                   sendOK();
                else
                   sendSavingError();
@@ -359,9 +401,8 @@ void simpleBinary::processSerial()
             else
                sendWrongData(crc);
 #endif
-            //clear buffer
-            serbuflen = 0;
-            return;
+            consume(len);
+            break;
             //write array
          case (char)0xDE:
             if(serbuflen < 6)
@@ -369,22 +410,29 @@ void simpleBinary::processSerial()
             
             int datalen;
             datalen = (serbuf[4] | (serbuf[5] << 8));
+            len = 7 + datalen + seq;
+            //packet can never fit into buffer
+            if(len > (int)sizeof(serbuf))
+            {
+               serbuflen = 0;
+               return;
+            }
             //correct packet length check
-            if(serbuflen < 7 + datalen)
+            if(serbuflen < len)
                return;
 
             //crc check
-            crc = CRC8::evalCRC(serbuf,6+datalen);              
-            if(serbuf[7+datalen] == crc)
+            crc = CRC8::evalCRC(serbuf,len-1);              
+            if(serbuf[len-1] == crc)
             {
+               readSequence(len);
                //address
                address = serbuf[2] | (serbuf[3] << 8);
                //check address
                if(!checkAddress(address))
                   sendInvalidAddress();
-               char *pData = serbuf + 6;
                //write data into memory              
-               if(saveArray(address,pData, datalen))
+               else if(saveArray(address,serbuf + 6, datalen))
                   sendOK();
                else
                   sendSavingError();            
@@ -393,9 +441,8 @@ void simpleBinary::processSerial()
             else
                sendWrongData(crc);
 #endif
-            //clear buffer
-            serbuflen = 0;
-            return;                        
+            consume(len);
+            break;                        
          default:
             //serbuflen = 0;
             serbuflen--;
@@ -410,6 +457,32 @@ void simpleBinary::processSerial()
    }
 }
 
+/// Take sequence number of received request. Answer will carry it back.
+///
+/// \param length  Request length
+///
+void simpleBinary::readSequence(int length)
+{
+   _sequence = _sequenced ? serbuf[length-2] : 0;
+}
+
+/// Remove processed request from buffer
+///
+/// \param length  Request length
+///
+void simpleBinary::consume(int length)
+{
+   serbuflen -= length;
+
+   for(int i=0;i<serbuflen;i++)
+   {
+      serbuf[i] = serbuf[i+length];
+   }
+
+   //next frames not requested by master have sequence 0
+   _sequence = 0;
+}
+
 
 /// Check if there are new data available to send
 ///
@@ -488,79 +561,73 @@ void simpleBinary::readData(int address)
 /// Send answer that data are OK
 void simpleBinary::sendOK()
 {
-   char data[4];
+   char data[5];
 
    data[0] = _uartAddress;
    data[1] = 0xE0;
    data[2] = 0x0;
-   data[3] = CRC8::evalCRC(data,3);
    
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Send answer that data are bad (crc)
 void simpleBinary::sendWrongData(byte crc)
 {
-   char data[4];
+   char data[5];
 
    data[0] = _uartAddress;
    data[1] = 0xE1;
    data[2] = crc;
-   data[3] = CRC8::evalCRC(data,3);
    
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Send answer that data are unknown
 void simpleBinary::sendUnknownData()
 {
-   char data[4];
+   char data[5];
 
    data[0] = _uartAddress;
    data[1] = 0xE3;
    data[2] = 0x0;
-   data[3] = CRC8::evalCRC(data,3);
    
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Send answer that has unknown address
 void simpleBinary::sendInvalidAddress()
 {
-   char data[4];
+   char data[5];
 
    data[0] = _uartAddress;
    data[1] = 0xE4;
    data[2] = 0x0;
-   data[3] = CRC8::evalCRC(data,3);
    
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Send error while saving data
 void simpleBinary::sendSavingError()
 {
-   char data[4];
+   char data[5];
 
    data[0] = _uartAddress;
    data[1] = 0xE5;
    data[2] = 0x0;
-   data[3] = CRC8::evalCRC(data,3);
    
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Send answer that there are no new data
 void simpleBinary::sendNoData()
 {
-   char data[4];
+   char data[5];
 
    data[0] = _uartAddress;
    data[1] = 0xE2;
    data[2] = 0x0;
-   data[3] = CRC8::evalCRC(data,3);
    
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Send data to master device
@@ -575,64 +642,59 @@ void simpleBinary::sendData(itemData *item)
    switch(item->getType())
    {
    case BYTE:  
-      data = new char[6];
+      data = new char[7];
 
       data[0] = _uartAddress;
       data[1] = 0xDA;
       item->addressToMemory(data+2);
       data[4] = *(*item).readNewData();
-      data[5] = CRC8::evalCRC(data,5);
 
-      write(data,6);
+      writeFrame(data,5);
       break;
    case WORD:
-      data = new char[7];
+      data = new char[8];
 
       data[0] = _uartAddress;
       data[1] = 0xDB;
       item->addressToMemory(data+2);
       item->readNewDataToMemory(data+4);
-      data[6] = CRC8::evalCRC(data,6);
 
-      write(data,7);
+      writeFrame(data,6);
       break;
    case DWORD:
    case FLOAT:   
-      data = new char[9];
+      data = new char[10];
 
       data[0] = _uartAddress;
       data[1] = 0xDC;
       item->addressToMemory(data+2);
       item->readNewDataToMemory(data+4);
-      data[8] = CRC8::evalCRC(data,8);
 
-      write(data,9);
+      writeFrame(data,8);
       break;
    case HSB:
    case RGB:
    case RGBW:    
-      data = new char[9];
+      data = new char[10];
 
       data[0] = _uartAddress;
       data[1] = 0xDD;
       item->addressToMemory(data+2);
       item->readNewDataToMemory(data+4);
-      data[8] = CRC8::evalCRC(data,8);
 
-      write(data,9);
+      writeFrame(data,8);
       break;    
    case ARRAY:
       int len = 7+item->getDataLength();
-      data = new char[len];
+      data = new char[len+1];
 
       data[0] = _uartAddress;
       data[1] = 0xDE;
       item->addressToMemory(data+2);
       item->dataLengthToMemory(data+4);
       item->readNewDataToMemory(data+6);
-      data[len-1] = CRC8::evalCRC(data,len-1);
 
-      write(data,len);
+      writeFrame(data,len-1);
       break;       
    }
 
@@ -640,6 +702,21 @@ void simpleBinary::sendData(itemData *item)
       delete[] data; 
 }
 
+/// Append sequence number (if enabled) and CRC and write frame
+///
+/// \param data    Frame without CRC. Array must have space for two more bytes
+/// \param length  Frame length without CRC
+///
+void simpleBinary::writeFrame(char* data, int length)
+{
+   if(_sequenced)
+      data[length++] = _sequence;
+
+   data[length] = CRC8::evalCRC(data,length);
+
+   write(data,length+1);
+}
+
 /// Write data to serial port
 ///
 /// \param data    Data to send    
@@ -731,6 +808,10 @@ bool simpleBinary::available()
 void simpleBinary::sendNewData()
 {
    bool newData = false;
+
+   //frame format is not known until welcome message come
+   if(_welcomePending)
+      return;
    
    //through all items
    for(int i=0;i<_size;i++)
@@ -752,28 +833,51 @@ void simpleBinary::sendNewData()
 ///
 void simpleBinary::sendHi()
 {
-   char* data = new char[4];
+   char data[5];
+
+   //new connection - frames are without sequence number until master accept it
+   _sequenced = false;
+   _sequence = 0;
+   _welcomePending = _sequenceOffered;
   
    data[0] = _uartAddress;
    data[1] = 0xE6;   
-   data[2] = 0x00;
-   data[3] = CRC8::evalCRC(data,3);
+   //flags - sequence numbers support and request window
+   data[2] = _sequenceOffered ? (0x01 | (_requestWindow << 4)) : 0x00;
   
-   write(data,4);
+   writeFrame(data,3);
 }
 
 /// Sends "WantAllData" message (full-duplex connection only)
 ///
 void simpleBinary::sendWantAllData()
 {
-   char* data = new char[4];
+   char data[5];
   
    data[0] = _uartAddress;
    data[1] = 0xE7;   
    data[2] = 0x00;
-   data[3] = CRC8::evalCRC(data,3);
   
-   write(data,4);
+   writeFrame(data,3);
+}
+
+/// Offer sequence numbers to master in "Hi" message (full-duplex connection only). When master accepts it, it can 
+/// send more requests without waiting for answers. Must be called before sendHi().
+///
+/// \param window  Count of requests device accepts at once (1-15, 0 - no limit). All of them must fit into 
+///                 receive buffer.
+///
+void simpleBinary::enableSequence(uint8_t window)
+{
+   _sequenceOffered = true;
+   _requestWindow = (window > 15) ? 15 : window;
+}
+
+/// Check if frames carry sequence number
+///
+bool simpleBinary::isSequenced()
+{
+   return _sequenced;
 }
 
 /// Enable/disable send keepalive packet
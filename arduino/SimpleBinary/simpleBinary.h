@@ -3,7 +3,7 @@
 // Name:        simpleBinary.h
 // Author:      Vita Tucek
 // Created:     20.8.2015
-// Modified:    11.12.2021
+// Modified:    18.10.2026
 // License:     MIT
 // Description: Implementation of SimpleBinary protocol for use with OpenHAB
 //
@@ -63,6 +63,10 @@ class simpleBinary
     void sendWantAllData();    
     // Enable/disable send keepalive packet (full-duplex connection)
     void enableKeepAlive(bool enable); 
+    // Offer sequence numbers in "Hi" message (full-duplex connection only)
+    void enableSequence(uint8_t window = 4);
+    // Check if frames carry sequence number
+    bool isSequenced();
     // Get device address
     int getDeviceAddress(void);
     // Set device address
@@ -101,6 +105,16 @@ class simpleBinary
      bool keepAliveEnabled = false;
      //time when data was lastly written into stream
      uint32_t lastOut = 0;
+     //sequence numbers offered in "Hi" message
+     bool _sequenceOffered = false;
+     //count of requests accepted at once (announced in "Hi" message)
+     uint8_t _requestWindow = 0;
+     //frames carry sequence number
+     bool _sequenced = false;
+     //sequence number of request being answered (0 for frames not requested by master)
+     char _sequence = 0;
+     //"Hi" sent, waiting for "Welcome"
+     bool _welcomePending = false;
 
      Stream *serial;
 
@@ -122,6 +136,12 @@ class simpleBinary
      void checkNewData();
      //write data into UART
      void write(const char* data, int length);
+     //append sequence number and CRC and write frame
+     void writeFrame(char* data, int length);
+     //take sequence number of received request
+     void readSequence(int length);
+     //remove processed request from buffer
+     void consume(int length);
      //run assigned function when force called
      void forceAllNewData();
 
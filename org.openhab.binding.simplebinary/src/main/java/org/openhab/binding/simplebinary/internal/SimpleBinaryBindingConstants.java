@@ -39,6 +39,13 @@ public class SimpleBinaryBindingConstants {
     public static final String CHANNEL_REQUESTS = "chRequestsTypeID";
     public static final String CHANNEL_BYTES = "chBytesTypeID";
     public static final String CHANNEL_CYCLE_TIME = "chCycleTimeTypeID";
+    public static final String CHANNEL_POLL_IDLE = "chPollIdleTypeID";
+    public static final String CHANNEL_OVERRUN_BYTES = "chOverrunBytesTypeID";
+    public static final String CHANNEL_POLL_LATENCY = "chPollLatencyTypeID";
+    public static final String CHANNEL_POLL_LATENCY_MAX = "chPollLatencyMaxTypeID";
+    public static final String CHANNEL_BUS_UTILIZATION = "chBusUtilizationTypeID";
+    public static final String CHANNEL_BUS_IDLE_GAP = "chBusIdleGapTypeID";
+    public static final String CHANNEL_TIMEOUT_LOSS = "chTimeoutLossTypeID";
     public static final String CHANNEL_STATE_CURRENT = "devState";
     public static final String CHANNEL_STATE_PREVIOUS = "devPreviousState";
     public static final String CHANNEL_STATE_CHANGED = "devStateChanged";
@@ -51,6 +58,19 @@ public class SimpleBinaryBindingConstants {
     public static final ChannelTypeUID CHANNEL_TYPE_REQUESTS = new ChannelTypeUID(BINDING_ID, CHANNEL_REQUESTS);
     public static final ChannelTypeUID CHANNEL_TYPE_BYTES = new ChannelTypeUID(BINDING_ID, CHANNEL_BYTES);
     public static final ChannelTypeUID CHANNEL_TYPE_CYCLE_TIME = new ChannelTypeUID(BINDING_ID, CHANNEL_CYCLE_TIME);
+    public static final ChannelTypeUID CHANNEL_TYPE_POLL_IDLE = new ChannelTypeUID(BINDING_ID, CHANNEL_POLL_IDLE);
+    public static final ChannelTypeUID CHANNEL_TYPE_OVERRUN_BYTES = new ChannelTypeUID(BINDING_ID,
+            CHANNEL_OVERRUN_BYTES);
+    public static final ChannelTypeUID CHANNEL_TYPE_POLL_LATENCY = new ChannelTypeUID(BINDING_ID,
+            CHANNEL_POLL_LATENCY);
+    public static final ChannelTypeUID CHANNEL_TYPE_POLL_LATENCY_MAX = new ChannelTypeUID(BINDING_ID,
+            CHANNEL_POLL_LATENCY_MAX);
+    public static final ChannelTypeUID CHANNEL_TYPE_BUS_UTILIZATION = new ChannelTypeUID(BINDING_ID,
+            CHANNEL_BUS_UTILIZATION);
+    public static final ChannelTypeUID CHANNEL_TYPE_BUS_IDLE_GAP = new ChannelTypeUID(BINDING_ID,
+            CHANNEL_BUS_IDLE_GAP);
+    public static final ChannelTypeUID CHANNEL_TYPE_TIMEOUT_LOSS = new ChannelTypeUID(BINDING_ID,
+            CHANNEL_TIMEOUT_LOSS);
 
     // List of all Thing Channel ids
     public static final String CHANNEL_NUMBER = "chNumber";
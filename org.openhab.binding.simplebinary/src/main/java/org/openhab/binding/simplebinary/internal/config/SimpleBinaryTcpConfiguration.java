@@ -29,6 +29,21 @@ public class SimpleBinaryTcpConfiguration {
      */
     public int port = 43243;
 
+    /**
+     * Communication poll control (NONE, ONCHANGE, ONSCAN)
+     */
+    public String pollControl = "NONE";
+
+    /**
+     * Device poll rate
+     */
+    public int pollRate = 1000;
+
+    /**
+     * Poll connected devices concurrently
+     */
+    public boolean concurrentPolling = true;
+
     /**
      * String data code page
      */
@@ -39,6 +54,11 @@ public class SimpleBinaryTcpConfiguration {
      */
     public int timeout = 1000;
 
+    /**
+     * Minimal response timeout estimated from device response times
+     */
+    public int minTimeout = 100;
+
     /**
      * Number of retries before device is set into degrade mode
      */
@@ -49,6 +69,11 @@ public class SimpleBinaryTcpConfiguration {
      */
     public int degradeTime = 5000;
 
+    /**
+     * Maximal time in degrade mode (ms). Degrade time is doubled up to this value while device is not responding.
+     */
+    public int degradeMaxTime = 60000;
+
     /**
      * Commands for offline device will be discarded
      */
@@ -58,4 +83,29 @@ public class SimpleBinaryTcpConfiguration {
      * Sync commands for device that get online
      */
     public boolean syncCommand = false;
+
+    /**
+     * Maximum size of received frame (bytes)
+     */
+    public int maxFrameSize = 1024;
+
+    /**
+     * Maximum count of frames waiting for write into one connection
+     */
+    public int sendQueueSize = 8;
+
+    /**
+     * Behaviour of full send queue (REJECT, DROP_OLDEST)
+     */
+    public String sendQueueOverflow = "REJECT";
+
+    /**
+     * Maximum count of outstanding requests per device (1 - no pipelining)
+     */
+    public int requestWindow = 1;
+
+    /**
+     * Maximum count of new data requests per device in one poll cycle (0 - unlimited)
+     */
+    public int maxNewDataFrames = 8;
 }
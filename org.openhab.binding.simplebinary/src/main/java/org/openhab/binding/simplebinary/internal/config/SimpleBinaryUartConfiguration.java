@@ -59,6 +59,11 @@ public class SimpleBinaryUartConfiguration {
      */
     public int timeout = 1000;
 
+    /**
+     * Minimal response timeout estimated from device response times
+     */
+    public int minTimeout = 100;
+
     /**
      * Number of retries before device is set into degrade mode
      */
@@ -69,6 +74,11 @@ public class SimpleBinaryUartConfiguration {
      */
     public int degradeTime = 5000;
 
+    /**
+     * Maximal time in degrade mode (ms). Degrade time is doubled up to this value while device is not responding.
+     */
+    public int degradeMaxTime = 60000;
+
     /**
      * Commands for offline device will be discarded
      */
@@ -78,4 +88,9 @@ public class SimpleBinaryUartConfiguration {
      * Sync commands for device that get online
      */
     public boolean syncCommand = false;
+
+    /**
+     * Maximum count of new data requests per device in one poll cycle (0 - unlimited)
+     */
+    public int maxNewDataFrames = 8;
 }
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Pool of receive buffers divided into power of two size classes. Buffers released by closed connections are reused
+ * by next connections. Buffer can be exchanged for bigger one when received frame doesn't fit in.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryBufferPool {
+    /** smallest buffer size */
+    public static final int MIN_CAPACITY = 256;
+
+    private final int maxCapacity;
+    /** free buffers by size class */
+    private final ArrayDeque<SimpleBinaryRingBuffer>[] free;
+    /** buffers handed out (identity set) */
+    private final Set<SimpleBinaryRingBuffer> inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private long allocated = 0;
+    private long allocatedBytes = 0;
+    private long reused = 0;
+    private long grown = 0;
+
+    /**
+     * Construct pool
+     *
+     * @param maxFrameSize Maximum frame size. Biggest buffer is rounded up to power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public SimpleBinaryBufferPool(int maxFrameSize) {
+        int capacity = MIN_CAPACITY;
+        int classes = 1;
+        while (capacity < maxFrameSize) {
+            capacity <<= 1;
+            classes++;
+        }
+
+        maxCapacity = capacity;
+        free = new ArrayDeque[classes];
+        for (int i = 0; i < classes; i++) {
+            free[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Return size class index for requested capacity
+     *
+     * @param minCapacity
+     * @return
+     */
+    private int sizeClass(int minCapacity) {
+        int index = 0;
+        int capacity = MIN_CAPACITY;
+        while (capacity < minCapacity) {
+            capacity <<= 1;
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Return buffer with at least given capacity
+     *
+     * @param minCapacity
+     * @return Buffer or null if requested capacity exceed maximum
+     */
+    public synchronized SimpleBinaryRingBuffer acquire(int minCapacity) {
+        if (minCapacity > maxCapacity) {
+            return null;
+        }
+
+        int index = sizeClass(minCapacity);
+        SimpleBinaryRingBuffer buffer = free[index].pollFirst();
+
+        if (buffer != null) {
+            reused++;
+        } else {
+            buffer = new SimpleBinaryRingBuffer(MIN_CAPACITY << index);
+            allocated++;
+            allocatedBytes += buffer.capacity();
+        }
+
+        inUse.add(buffer);
+
+        return buffer;
+    }
+
+    /**
+     * Return buffer into pool. Buffer must not be used after release. Repeated release is ignored.
+     *
+     * @param buffer
+     */
+    public synchronized void release(SimpleBinaryRingBuffer buffer) {
+        if (buffer == null || !inUse.remove(buffer)) {
+            return;
+        }
+
+        buffer.clear();
+        buffer.setSequenced(false);
+        free[sizeClass(buffer.capacity())].addFirst(buffer);
+    }
+
+    /**
+     * Exchange buffer for bigger one. Unread data are copied into new buffer and old buffer is released.
+     *
+     * @param buffer
+     * @param minCapacity
+     * @return New buffer or null if requested capacity exceed maximum
+     */
+    public synchronized SimpleBinaryRingBuffer grow(SimpleBinaryRingBuffer buffer, int minCapacity) {
+        SimpleBinaryRingBuffer bigger = acquire(Math.max(minCapacity, buffer.capacity() + 1));
+
+        if (bigger == null) {
+            return null;
+        }
+
+        buffer.copyTo(bigger);
+        bigger.setSequenced(buffer.isSequenced());
+        release(buffer);
+        grown++;
+
+        return bigger;
+    }
+
+    /**
+     * Return biggest buffer capacity
+     *
+     * @return
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Return count of buffers currently used
+     *
+     * @return
+     */
+    public synchronized int getInUseCount() {
+        return inUse.size();
+    }
+
+    /**
+     * Return count of buffers waiting in pool
+     *
+     * @return
+     */
+    public synchronized int getFreeCount() {
+        int count = 0;
+        for (ArrayDeque<SimpleBinaryRingBuffer> f : free) {
+            count += f.size();
+        }
+        return count;
+    }
+
+    /**
+     * Return count of allocated buffers
+     *
+     * @return
+     */
+    public synchronized long getAllocatedCount() {
+        return allocated;
+    }
+
+    /**
+     * Return total size of allocated buffers
+     *
+     * @return
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Return count of requests served from pool
+     *
+     * @return
+     */
+    public synchronized long getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * Return count of buffer exchanges for bigger one
+     *
+     * @return
+     */
+    public synchronized long getGrownCount() {
+        return grown;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("BufferPool(inUse=%d,free=%d,allocated=%d/%dB,reused=%d,grown=%d,max=%dB)",
+                inUse.size(), getFreeCount(), allocated, allocatedBytes, reused, grown, maxCapacity);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serial bus airtime accounting. Wire time of every frame is evaluated from byte count and baud rate. Gaps between
+ * transactions and time spent waiting for answers that never came are summed too.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryBusUsage {
+    /** bits on wire per byte - start bit, 8 data bits and stop bit */
+    public static final int BITS_PER_BYTE = 10;
+
+    /** wire time of one byte [ns] */
+    private final long byteTime;
+    /** wire time of all frames in period [ns] */
+    private long airtime = 0;
+    /** wire time of frames per device in period [ns] */
+    private final Map<Integer, Long> deviceAirtime = new HashMap<>();
+    /** sum of idle gaps in period [ns] */
+    private long idleTime = 0;
+    /** count of idle gaps in period */
+    private int idleGaps = 0;
+    /** time spent waiting for answers which did not come in period [ns] */
+    private long timeoutLoss = 0;
+    /** bus idle since [ns], 0 when transaction is running */
+    private long idleSince = 0;
+    /** start of last transaction [ns] */
+    private long transactionStart = 0;
+
+    /**
+     * Usage summary of one period
+     */
+    public static class Summary {
+        /** share of period with data on wire [%] */
+        public final long utilization;
+        /** average gap between end of transaction and next request [ms] */
+        public final double idleGap;
+        /** share of period spent waiting for answers that did not come [%] */
+        public final long timeoutLoss;
+        /** wire time per device [ms] */
+        public final Map<Integer, Long> deviceAirtime;
+
+        Summary(long utilization, double idleGap, long timeoutLoss, Map<Integer, Long> deviceAirtime) {
+            this.utilization = utilization;
+            this.idleGap = idleGap;
+            this.timeoutLoss = timeoutLoss;
+            this.deviceAirtime = deviceAirtime;
+        }
+    }
+
+    /**
+     * Construct bus usage accounting
+     *
+     * @param baud Bus speed [bits/s]
+     */
+    public SimpleBinaryBusUsage(int baud) {
+        this.byteTime = baud > 0 ? BITS_PER_BYTE * 1_000_000_000L / baud : 0;
+    }
+
+    /**
+     * Account request frame. Starts new transaction.
+     *
+     * @param deviceId
+     * @param bytes Frame length
+     */
+    public synchronized void frameSent(int deviceId, int bytes) {
+        long now = System.nanoTime();
+
+        if (idleSince != 0) {
+            idleTime += now - idleSince;
+            idleGaps++;
+            idleSince = 0;
+        }
+        transactionStart = now;
+        addAirtime(deviceId, bytes);
+    }
+
+    /**
+     * Account received bytes
+     *
+     * @param deviceId Device received bytes belong to
+     * @param bytes
+     */
+    public synchronized void bytesReceived(int deviceId, int bytes) {
+        addAirtime(deviceId, bytes);
+    }
+
+    /**
+     * Mark transaction end after answer was received
+     */
+    public synchronized void answered() {
+        idleSince = System.nanoTime();
+    }
+
+    /**
+     * Mark transaction end after answer timeout
+     */
+    public synchronized void timeouted() {
+        long now = System.nanoTime();
+
+        if (transactionStart != 0) {
+            timeoutLoss += now - transactionStart;
+        }
+        idleSince = now;
+    }
+
+    /**
+     * Return usage summary and start new period
+     *
+     * @param period Period length [ms]
+     * @return
+     */
+    public synchronized Summary takeSummary(long period) {
+        final long periodNanos = Math.max(1, period) * 1_000_000L;
+        final Map<Integer, Long> devices = new HashMap<>();
+
+        deviceAirtime.forEach((id, time) -> devices.put(id, time / 1_000_000L));
+
+        Summary summary = new Summary(Math.min(100, airtime * 100 / periodNanos),
+                idleGaps > 0 ? idleTime / 1e6 / idleGaps : 0, Math.min(100, timeoutLoss * 100 / periodNanos),
+                devices);
+
+        airtime = 0;
+        deviceAirtime.clear();
+        idleTime = 0;
+        idleGaps = 0;
+        timeoutLoss = 0;
+
+        return summary;
+    }
+
+    private void addAirtime(int deviceId, int bytes) {
+        long time = bytes * byteTime;
+
+        airtime += time;
+        deviceAirtime.merge(deviceId, time, Long::sum);
+    }
+}
@@ -29,6 +29,8 @@ public class SimpleBinaryByteBuffer {
     protected ByteBuffer _buffer;
     protected BufferMode _mode = BufferMode.WRITE;
     protected int _size;
+    /** reusable view of received frame */
+    protected final SimpleBinaryFrame _frame = new SimpleBinaryFrame();
 
     /**
      * Contruct buffer with defined size
@@ -196,6 +198,30 @@ public class SimpleBinaryByteBuffer {
         return _buffer;
     }
 
+    /**
+     * Return reusable frame view for this buffer
+     *
+     * @return
+     */
+    public SimpleBinaryFrame getFrame() {
+        return _frame;
+    }
+
+    /**
+     * Map frame view on data at current position in read mode. Position is not changed.
+     *
+     * @param frame
+     * @return Frame length, SimpleBinaryFrame.INCOMPLETE or SimpleBinaryFrame.UNKNOWN_MESSAGE
+     * @throws ModeChangeException
+     */
+    public int wrapFrame(SimpleBinaryFrame frame) throws ModeChangeException {
+        if (_mode == BufferMode.READ) {
+            return frame.wrap(_buffer, _buffer.position(), _buffer.limit());
+        } else {
+            throw new ModeChangeException("wrapFrame()", _mode);
+        }
+    }
+
     /**
      * Read byte
      *
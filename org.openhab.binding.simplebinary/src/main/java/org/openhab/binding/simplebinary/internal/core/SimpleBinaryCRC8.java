@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Table driven CRC8 used by SimpleBinary protocol (polynomial x^8+x^2+x+1, initial value 0).
+ *
+ * Instance can be used to count CRC incrementally (e.g. directly over receive buffer). Static methods provide
+ * one-shot calculation.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryCRC8 {
+
+    /** lookup table - CRC of every single byte value */
+    private static final byte[] TABLE = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            TABLE[i] = evalBitwise(i);
+        }
+    }
+
+    /** current CRC value */
+    private int crc = 0;
+
+    /**
+     * Count CRC of single byte value by original bit by bit algorithm. Used to fill lookup table.
+     *
+     * @param value
+     * @return
+     */
+    private static byte evalBitwise(int value) {
+        int crc = value << 8;
+
+        for (int i = 0; i < 8; i++) {
+            if ((crc & 0x8000) != 0) {
+                crc ^= (0x1070 << 3);
+            }
+
+            crc <<= 1;
+        }
+
+        return (byte) (crc >> 8);
+    }
+
+    /**
+     * Reset CRC into initial state
+     *
+     * @return
+     */
+    public SimpleBinaryCRC8 reset() {
+        crc = 0;
+        return this;
+    }
+
+    /**
+     * Add single byte into CRC
+     *
+     * @param data
+     * @return
+     */
+    public SimpleBinaryCRC8 update(byte data) {
+        crc = TABLE[(crc ^ data) & 0xFF];
+        return this;
+    }
+
+    /**
+     * Add part of array into CRC
+     *
+     * @param data
+     * @param from Start index (inclusive)
+     * @param to End index (exclusive)
+     * @return
+     */
+    public SimpleBinaryCRC8 update(byte[] data, int from, int to) {
+        crc = update(crc, data, from, to);
+        return this;
+    }
+
+    /**
+     * Add part of buffer into CRC. Buffer position is not changed.
+     *
+     * @param data
+     * @param from Start index (inclusive)
+     * @param to End index (exclusive)
+     * @return
+     */
+    public SimpleBinaryCRC8 update(ByteBuffer data, int from, int to) {
+        crc = update(crc, data, from, to);
+        return this;
+    }
+
+    /**
+     * Return current CRC value
+     *
+     * @return
+     */
+    public byte getValue() {
+        return (byte) crc;
+    }
+
+    /**
+     * Return CRC8 of data with specific length
+     *
+     * @param data
+     * @param length
+     * @return
+     */
+    public static byte eval(byte[] data, int length) {
+        return (byte) update(0, data, 0, length);
+    }
+
+    /**
+     * Return CRC8 of buffer part. Buffer position is not changed.
+     *
+     * @param data
+     * @param from Start index (inclusive)
+     * @param to End index (exclusive)
+     * @return
+     */
+    public static byte eval(ByteBuffer data, int from, int to) {
+        return (byte) update(0, data, from, to);
+    }
+
+    /**
+     * Return CRC8 of ring buffer part. Indexes are masked by buffer size so data can wrap around buffer end. Buffer
+     * position is not changed.
+     *
+     * @param data
+     * @param mask Index mask (buffer capacity - 1) or -1 for linear buffer
+     * @param from Start index (inclusive)
+     * @param to End index (exclusive)
+     * @return
+     */
+    public static byte eval(ByteBuffer data, int mask, int from, int to) {
+        int start = from & mask;
+        int end = start + (to - from);
+
+        if (mask == -1 || end <= mask + 1) {
+            return (byte) update(0, data, start, end);
+        }
+
+        // two segments - till buffer end and from buffer start
+        return (byte) update(update(0, data, start, mask + 1), data, 0, end - (mask + 1));
+    }
+
+    /**
+     * Return CRC8 of data part evaluated from CRC values of two data prefixes. CRC is linear so CRC of prefix ending at
+     * part end equals CRC of prefix ending at part start shifted by part length combined with CRC of the part.
+     *
+     * @param crcFrom CRC of data before part start
+     * @param crcTo CRC of data before part end
+     * @param length Part length
+     * @return
+     */
+    public static byte evalPart(byte crcFrom, byte crcTo, int length) {
+        // shifting by one byte multiplies CRC by x^8 modulo polynomial
+        int shift = 1;
+        int power = 0x07;
+
+        for (int n = length; n > 0; n >>= 1) {
+            if ((n & 1) != 0) {
+                shift = multiply(shift, power);
+            }
+            power = multiply(power, power);
+        }
+
+        return (byte) (crcTo ^ multiply(crcFrom & 0xFF, shift));
+    }
+
+    /**
+     * Multiply two values as polynomials modulo CRC polynomial
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    private static int multiply(int a, int b) {
+        int product = 0;
+
+        for (int i = 0; i < 8; i++) {
+            if ((b & (1 << i)) != 0) {
+                product ^= a << i;
+            }
+        }
+
+        for (int i = 14; i >= 8; i--) {
+            if ((product & (1 << i)) != 0) {
+                product ^= 0x107 << (i - 8);
+            }
+        }
+
+        return product;
+    }
+
+    private static int update(int crc, byte[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            crc = TABLE[(crc ^ data[i]) & 0xFF];
+        }
+
+        return crc & 0xFF;
+    }
+
+    private static int update(int crc, ByteBuffer data, int from, int to) {
+        if (data.hasArray()) {
+            return update(crc, data.array(), data.arrayOffset() + from, data.arrayOffset() + to);
+        }
+
+        for (int i = from; i < to; i++) {
+            crc = TABLE[(crc ^ data.get(i)) & 0xFF];
+        }
+
+        return crc & 0xFF;
+    }
+}
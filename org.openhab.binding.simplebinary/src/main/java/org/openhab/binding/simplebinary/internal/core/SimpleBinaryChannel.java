@@ -44,6 +44,8 @@ public class SimpleBinaryChannel {
     public String commandAddress;
     /** Number value unit */
     public String unit;
+    /** State read period in ONSCAN mode [ms]. Read every cycle if not set. */
+    public Integer pollInterval;
     /** Stored state value */
     private State value;
     /** Last command */
@@ -63,6 +65,10 @@ public class SimpleBinaryChannel {
     private Unit<?> unitInstance = null;
     /** Unit exists flag */
     private boolean unitExists = false;
+    /** Command encoder */
+    private SimpleBinaryCommandEncoder commandEncoder = null;
+    /** State decoder */
+    private SimpleBinaryStateDecoder stateDecoder = null;
 
     final private static Pattern numberAddressPattern = Pattern.compile("^((\\d+):(\\d+):(byte|word|dword|float))$");
     final private static Pattern stringAddressPattern = Pattern.compile("^((\\d+):(\\d+):(\\d+))$");
@@ -113,6 +119,13 @@ public class SimpleBinaryChannel {
             return false;
         }
 
+        if (pollInterval != null && pollInterval < 0) {
+            error = String.format("Poll interval %d must not be negative", pollInterval);
+            return false;
+        }
+
+        commandEncoder = SimpleBinaryCommandEncoder.create(this);
+
         if (unit != null) {
             unitInstance = UnitUtils.parseUnit(unit);
             if (unitInstance != null) {
@@ -121,6 +134,9 @@ public class SimpleBinaryChannel {
                 logger.warn("Channel {} - cannot parse defined unit({})", this.toString(), unit);
             }
         }
+
+        stateDecoder = SimpleBinaryStateDecoder.create(this);
+
         return true;
     }
 
@@ -235,6 +251,15 @@ public class SimpleBinaryChannel {
         return stateAddressEx;
     }
 
+    /**
+     * Get state read period
+     *
+     * @return Period in milliseconds. 0 if state is read every cycle.
+     */
+    public int getPollInterval() {
+        return pollInterval != null ? pollInterval : 0;
+    }
+
     /**
      * Get address for command
      *
@@ -262,6 +287,24 @@ public class SimpleBinaryChannel {
         return unitExists;
     }
 
+    /**
+     * Get command encoder resolved in init()
+     *
+     * @return
+     */
+    public @Nullable SimpleBinaryCommandEncoder getCommandEncoder() {
+        return commandEncoder;
+    }
+
+    /**
+     * Get state decoder resolved in init()
+     *
+     * @return
+     */
+    public @Nullable SimpleBinaryStateDecoder getStateDecoder() {
+        return stateDecoder;
+    }
+
     public void setState(State state) {
         value = state;
         if (thing == null) {
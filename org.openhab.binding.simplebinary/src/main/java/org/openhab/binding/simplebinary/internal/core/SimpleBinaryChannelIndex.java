@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of state channels by device ID and address. Open addressing hash table with primitive keys
+ * (deviceId << 16 | address) and linear probing.
+ *
+ * Index is built once from channel configuration and is not modified later.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryChannelIndex {
+    private static final int EMPTY = -1;
+
+    private final int[] keys;
+    private final SimpleBinaryChannel[] values;
+    private final int mask;
+    private int size = 0;
+
+    /**
+     * Construct index from list of channels. When more channels share same address first one is used.
+     *
+     * @param channels
+     */
+    public SimpleBinaryChannelIndex(List<SimpleBinaryChannel> channels) {
+        // load factor max 0.5
+        int capacity = 16;
+        while (capacity < channels.size() * 2) {
+            capacity <<= 1;
+        }
+
+        keys = new int[capacity];
+        values = new SimpleBinaryChannel[capacity];
+        mask = capacity - 1;
+
+        Arrays.fill(keys, EMPTY);
+
+        for (SimpleBinaryChannel channel : channels) {
+            SimpleBinaryAddress address = channel.getStateAddress();
+
+            if (address != null) {
+                put(key(address.getDeviceId(), address.getAddress()), channel);
+            }
+        }
+    }
+
+    private static int key(int deviceId, int address) {
+        return ((deviceId & 0xFF) << 16) | (address & 0xFFFF);
+    }
+
+    private static int slot(int key) {
+        // spread bits (Fibonacci hashing)
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void put(int key, SimpleBinaryChannel channel) {
+        int i = slot(key) & mask;
+
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = channel;
+        size++;
+    }
+
+    /**
+     * Return channel with given device ID and address or null
+     *
+     * @param deviceId
+     * @param address
+     * @return
+     */
+    public SimpleBinaryChannel get(int deviceId, int address) {
+        if (deviceId < 0 || deviceId > 0xFF || address < 0 || address > 0xFFFF) {
+            return null;
+        }
+
+        int key = key(deviceId, address);
+        int i = slot(key) & mask;
+
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Return number of indexed channels
+     *
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,551 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.nio.charset.Charset;
+
+import org.openhab.binding.simplebinary.internal.SimpleBinaryBindingConstants;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.IncreaseDecreaseType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.StopMoveType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Command encoder resolved once for channel. Encoder holds frame template with device ID, message ID and address
+ * already filled. Encoding command writes only value and CRC into template.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public abstract class SimpleBinaryCommandEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(SimpleBinaryCommandEncoder.class);
+
+    /** index of first value byte in frame */
+    protected static final int VALUE_OFFSET = 4;
+    /** index of first value byte in array frame */
+    protected static final int ARRAY_VALUE_OFFSET = 6;
+
+    protected final SimpleBinaryChannel channel;
+    protected final SimpleBinaryAddress address;
+    /** frame template, null when address datatype has no frame */
+    private final byte[] frame;
+
+    /**
+     * Construct encoder and prepare frame template
+     *
+     * @param channel
+     */
+    protected SimpleBinaryCommandEncoder(SimpleBinaryChannel channel) {
+        this.channel = channel;
+        this.address = channel.getCommandAddress();
+        this.frame = createFrame(address);
+    }
+
+    /**
+     * Create encoder for channel depending on channel type and address datatype
+     *
+     * @param channel
+     * @return Encoder or null if channel has no command address
+     */
+    public static SimpleBinaryCommandEncoder create(SimpleBinaryChannel channel) {
+        if (channel.getCommandAddress() == null || channel.channelType == null) {
+            return null;
+        }
+
+        switch (channel.channelType.getId()) {
+            case SimpleBinaryBindingConstants.CHANNEL_NUMBER:
+                switch (channel.getCommandAddress().getType()) {
+                    case BYTE:
+                        return new NumberByteEncoder(channel);
+                    case WORD:
+                        return new NumberWordEncoder(channel);
+                    case DWORD:
+                        return new NumberDwordEncoder(channel);
+                    case FLOAT:
+                        return new NumberFloatEncoder(channel);
+                    default:
+                        return new UnsupportedEncoder(channel, String.format(
+                                "Cannot create WriteDataFrame. Command for ChannelType=%s has unsupported datatype=%s",
+                                channel.channelType.getId(), channel.getCommandAddress().getType()));
+                }
+            case SimpleBinaryBindingConstants.CHANNEL_STRING:
+                return new StringEncoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_SWITCH:
+                return new SwitchEncoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_CONTACT:
+                return new ContactEncoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_COLOR:
+                switch (channel.getCommandAddress().getType()) {
+                    case HSB:
+                        return new ColorHsbEncoder(channel);
+                    case RGB:
+                        return new ColorRgbEncoder(channel);
+                    case RGBW:
+                        return new ColorRgbwEncoder(channel);
+                    default:
+                        return new UnsupportedEncoder(channel,
+                                String.format("Cannot create WriteDataFrame. Command for ChannelType=%s not implemented",
+                                        channel.channelType.getId()));
+                }
+            case SimpleBinaryBindingConstants.CHANNEL_DIMMER:
+                return new DimmerEncoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_ROLLERSHUTTER:
+                return new RollershutterEncoder(channel);
+            default:
+                return new UnsupportedEncoder(channel,
+                        String.format("Cannot create WriteDataFrame. Command for ChannelType=%s not implemented.",
+                                channel.channelType.getId()));
+        }
+    }
+
+    /**
+     * Create frame template for address datatype
+     *
+     * @param address
+     * @return
+     */
+    private static byte[] createFrame(SimpleBinaryAddress address) {
+        byte[] data;
+
+        switch (address.getType()) {
+            case BYTE:
+                data = new byte[6];
+                data[1] = (byte) 0xDA;
+                break;
+            case WORD:
+                data = new byte[7];
+                data[1] = (byte) 0xDB;
+                break;
+            case DWORD:
+            case FLOAT:
+                data = new byte[9];
+                data[1] = (byte) 0xDC;
+                break;
+            case HSB:
+            case RGB:
+            case RGBW:
+                data = new byte[9];
+                data[1] = (byte) 0xDD;
+                break;
+            case ARRAY:
+                int arraylen = address.getLength();
+                data = new byte[7 + arraylen];
+                data[1] = (byte) 0xDE;
+                // length
+                data[4] = (byte) (arraylen & 0xFF);
+                data[5] = (byte) ((arraylen >> 8) & 0xFF);
+                break;
+            default:
+                return null;
+        }
+
+        // bus address
+        data[0] = (byte) (address.getDeviceId() & 0xFF);
+        // item address / ID
+        data[2] = (byte) (address.getAddress() & 0xFF);
+        data[3] = (byte) ((address.getAddress() >> 8) & 0xFF);
+
+        return data;
+    }
+
+    /**
+     * Encode command into frame template. Template content is valid until next encode call.
+     *
+     * @param command
+     * @param charset
+     * @return False if command is not supported and should be ignored
+     * @throws Exception
+     */
+    public boolean encode(Type command, Charset charset) throws Exception {
+        if (logger.isDebugEnabled()) {
+            logger.debug("compileDataFrame(): channel:{}|datatype:{}", channel.channelId, address.getType());
+        }
+
+        if (frame == null) {
+            throw new Exception(String.format(
+                    "Cannot create WriteDataFrame. Command for ChannelType=%s must have defined datatype.",
+                    channel.channelType.getId()));
+        }
+
+        if (!writeValue(frame, command, charset)) {
+            return false;
+        }
+
+        frame[frame.length - 1] = SimpleBinaryCRC8.eval(frame, frame.length - 1);
+
+        return true;
+    }
+
+    /**
+     * Return frame template with last encoded command
+     *
+     * @return
+     */
+    public byte[] getFrame() {
+        return frame;
+    }
+
+    /**
+     * Write command value into frame
+     *
+     * @param data Frame template
+     * @param command
+     * @param charset
+     * @return False if command is not supported and should be ignored
+     * @throws Exception
+     */
+    protected abstract boolean writeValue(byte[] data, Type command, Charset charset) throws Exception;
+
+    /**
+     * Write 16bit little endian value
+     *
+     * @param data
+     * @param index
+     * @param value
+     */
+    protected static void putWord(byte[] data, int index, int value) {
+        data[index] = (byte) (value & 0xFF);
+        data[index + 1] = (byte) ((value >> 8) & 0xFF);
+    }
+
+    /**
+     * Write 32bit little endian value
+     *
+     * @param data
+     * @param index
+     * @param value
+     */
+    protected static void putInt(byte[] data, int index, int value) {
+        data[index] = (byte) (value & 0xFF);
+        data[index + 1] = (byte) ((value >> 8) & 0xFF);
+        data[index + 2] = (byte) ((value >> 16) & 0xFF);
+        data[index + 3] = (byte) ((value >> 24) & 0xFF);
+    }
+
+    protected Exception typeMismatch(String expectedType) {
+        return new Exception(String.format("Cannot create WriteDataFrame. Command for ChannelType=%s must be %s",
+                channel.channelType.getId(), expectedType));
+    }
+
+    protected Exception notImplemented(Type command) {
+        return new Exception(
+                String.format("Cannot create WriteDataFrame. Command %s for ChannelType=%s not implemented",
+                        command.getClass(), channel.channelType.getId()));
+    }
+
+    /**
+     * Encoder for unsupported channel configuration. Every command fails.
+     */
+    static class UnsupportedEncoder extends SimpleBinaryCommandEncoder {
+        private final String message;
+
+        UnsupportedEncoder(SimpleBinaryChannel channel, String message) {
+            super(channel);
+            this.message = message;
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            throw new Exception(message);
+        }
+    }
+
+    static class NumberByteEncoder extends SimpleBinaryCommandEncoder {
+        NumberByteEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof Number)) {
+                throw typeMismatch("DecimalType");
+            }
+            data[VALUE_OFFSET] = ((Number) command).byteValue();
+            return true;
+        }
+    }
+
+    static class NumberWordEncoder extends SimpleBinaryCommandEncoder {
+        NumberWordEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof Number)) {
+                throw typeMismatch("DecimalType");
+            }
+            putWord(data, VALUE_OFFSET, ((Number) command).intValue());
+            return true;
+        }
+    }
+
+    static class NumberDwordEncoder extends SimpleBinaryCommandEncoder {
+        NumberDwordEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof Number)) {
+                throw typeMismatch("DecimalType");
+            }
+            putInt(data, VALUE_OFFSET, ((Number) command).intValue());
+            return true;
+        }
+    }
+
+    static class NumberFloatEncoder extends SimpleBinaryCommandEncoder {
+        NumberFloatEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof Number)) {
+                throw typeMismatch("DecimalType");
+            }
+            putInt(data, VALUE_OFFSET, Float.floatToIntBits(((Number) command).floatValue()));
+            return true;
+        }
+    }
+
+    static class StringEncoder extends SimpleBinaryCommandEncoder {
+        StringEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof StringType)) {
+                throw typeMismatch("StringType");
+            }
+
+            byte[] bytes = command.toString().getBytes(charset);
+            int length = data.length - ARRAY_VALUE_OFFSET - 1;
+
+            for (int i = 0; i < length; i++) {
+                data[ARRAY_VALUE_OFFSET + i] = (i < bytes.length) ? bytes[i] : 0x0;
+            }
+            return true;
+        }
+    }
+
+    static class SwitchEncoder extends SimpleBinaryCommandEncoder {
+        SwitchEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof OnOffType)) {
+                throw typeMismatch("OnOffType");
+            }
+            data[VALUE_OFFSET] = (byte) (command == OnOffType.ON ? 1 : 0);
+            return true;
+        }
+    }
+
+    static class ContactEncoder extends SimpleBinaryCommandEncoder {
+        ContactEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (!(command instanceof OpenClosedType)) {
+                throw typeMismatch("OpenClosedType");
+            }
+            data[VALUE_OFFSET] = (byte) (command == OpenClosedType.OPEN ? 1 : 0);
+            return true;
+        }
+    }
+
+    static class DimmerEncoder extends SimpleBinaryCommandEncoder {
+        DimmerEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (command instanceof PercentType) {
+                data[VALUE_OFFSET] = ((PercentType) command).byteValue();
+            } else if (command instanceof OnOffType) {
+                data[VALUE_OFFSET] = (byte) (command == OnOffType.ON ? 100 : 0);
+            } else {
+                throw notImplemented(command);
+            }
+            return true;
+        }
+    }
+
+    static class RollershutterEncoder extends SimpleBinaryCommandEncoder {
+        RollershutterEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            if (command instanceof StopMoveType) {
+                data[VALUE_OFFSET] = 0x0;
+                data[VALUE_OFFSET + 1] = (byte) (command == StopMoveType.MOVE ? 0x1 : 0x2);
+            } else if (command instanceof UpDownType) {
+                data[VALUE_OFFSET] = 0x0;
+                data[VALUE_OFFSET + 1] = (byte) (command == UpDownType.UP ? 0x4 : 0x8);
+            } else if (command instanceof PercentType) {
+                data[VALUE_OFFSET + 1] = 0x1;
+                data[VALUE_OFFSET] = ((PercentType) command).byteValue();
+            } else {
+                throw notImplemented(command);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Base for color encoders. Convert command into HSB value.
+     */
+    abstract static class ColorEncoder extends SimpleBinaryCommandEncoder {
+        ColorEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected boolean writeValue(byte[] data, Type command, Charset charset) throws Exception {
+            HSBType hsbVal;
+
+            if (command instanceof OnOffType) {
+                hsbVal = (command == OnOffType.OFF) ? HSBType.BLACK : HSBType.WHITE;
+            } else if (command instanceof IncreaseDecreaseType) {
+                int brightness = HSBType.BLACK.getBrightness().intValue();
+
+                if (command == IncreaseDecreaseType.INCREASE) {
+                    brightness = Math.min(brightness + SimpleBinaryProtocol.INCREASE_STEP, 100);
+                } else {
+                    brightness = Math.max(brightness - SimpleBinaryProtocol.INCREASE_STEP, 0);
+                }
+
+                hsbVal = new HSBType(HSBType.BLACK.getHue(), HSBType.BLACK.getSaturation(),
+                        new PercentType(brightness));
+            } else if (command instanceof HSBType) {
+                hsbVal = (HSBType) command;
+            } else if (command instanceof PercentType) {
+                hsbVal = new HSBType(HSBType.WHITE.getHue(), HSBType.WHITE.getSaturation(), (PercentType) command);
+            } else {
+                logger.error("Unsupported command type {} for target datatype {}. Command={}.",
+                        command.getClass().toString(), address.getType(), command.toString());
+                return false;
+            }
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Channel {}: Red={} Green={} Blue={}", channel.channelId, hsbVal.getRed(),
+                        hsbVal.getGreen(), hsbVal.getBlue());
+                logger.debug("         Hue={} Sat={} Bri={}", hsbVal.getHue(), hsbVal.getSaturation(),
+                        hsbVal.getBrightness());
+                logger.debug("         AddressType={}", address.getType());
+            }
+
+            writeColor(data, hsbVal);
+            return true;
+        }
+
+        /**
+         * Write color value into frame
+         *
+         * @param data
+         * @param color
+         */
+        protected abstract void writeColor(byte[] data, HSBType color);
+
+        /**
+         * Convert percent color part into 0-255
+         *
+         * @param value
+         * @return
+         */
+        protected static long toByteRange(PercentType value) {
+            return Math.min(Math.round(value.doubleValue() * 2.55), 255);
+        }
+    }
+
+    static class ColorHsbEncoder extends ColorEncoder {
+        ColorHsbEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected void writeColor(byte[] data, HSBType color) {
+            putWord(data, VALUE_OFFSET, color.getHue().shortValue());
+            data[VALUE_OFFSET + 2] = color.getSaturation().byteValue();
+            data[VALUE_OFFSET + 3] = color.getBrightness().byteValue();
+        }
+    }
+
+    static class ColorRgbEncoder extends ColorEncoder {
+        ColorRgbEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected void writeColor(byte[] data, HSBType color) {
+            long red = toByteRange(color.getRed());
+            long green = toByteRange(color.getGreen());
+            long blue = toByteRange(color.getBlue());
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("         Converted to 0-255: Red={} Green={} Blue={}", red, green, blue);
+            }
+
+            data[VALUE_OFFSET] = (byte) (red & 0xFF);
+            data[VALUE_OFFSET + 1] = (byte) (green & 0xFF);
+            data[VALUE_OFFSET + 2] = (byte) (blue & 0xFF);
+            data[VALUE_OFFSET + 3] = 0x0;
+        }
+    }
+
+    static class ColorRgbwEncoder extends ColorEncoder {
+        ColorRgbwEncoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected void writeColor(byte[] data, HSBType color) {
+            long red = toByteRange(color.getRed());
+            long green = toByteRange(color.getGreen());
+            long blue = toByteRange(color.getBlue());
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("         Converted to 0-255: Red={} Green={} Blue={}", red, green, blue);
+            }
+
+            byte[] rgbw = SimpleBinaryProtocol.calcWhite(red, green, blue);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("         Converted to RGBW: Red={} Green={} Blue={} White={}", rgbw[0] & 0xFF,
+                        rgbw[1] & 0xFF, rgbw[2] & 0xFF, rgbw[3] & 0xFF);
+            }
+
+            data[VALUE_OFFSET] = rgbw[0];
+            data[VALUE_OFFSET + 1] = rgbw[1];
+            data[VALUE_OFFSET + 2] = rgbw[2];
+            data[VALUE_OFFSET + 3] = rgbw[3];
+        }
+    }
+}
@@ -13,9 +13,9 @@
 package org.openhab.binding.simplebinary.internal.core;
 
 import java.util.ArrayList;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.openhab.binding.simplebinary.internal.handler.SimpleBinaryGenericHandler;
 
@@ -29,13 +29,28 @@ public class SimpleBinaryDevice {
     private final SimpleBinaryDeviceState state;
     private boolean isDegraded = false;
     private long degradeTime = 0;
+    /** current off-scan period [ms] */
+    private long degradePeriod = 0;
+    /** count of off-scan periods without successful probe */
+    private int degradeCount = 0;
     private int failuresCounter = 0;
-    /** received message type */
-    protected final AtomicReference<SimpleBinaryMessageType> receivedMessage = new AtomicReference<SimpleBinaryMessageType>();
+    /** response timeout estimation */
+    private final SimpleBinaryRttEstimator rtt = new SimpleBinaryRttEstimator();
+    /** time of last new data check */
+    private long lastNewDataCheck = 0;
     /** things */
     private final ArrayList<SimpleBinaryGenericHandler> things = new ArrayList<SimpleBinaryGenericHandler>();
     /** queue for commands */
     private final ConcurrentLinkedDeque<SimpleBinaryChannel> commandQueue = new ConcurrentLinkedDeque<SimpleBinaryChannel>();
+    /** command added since last check */
+    private final AtomicBoolean commandAdded = new AtomicBoolean();
+    /** requests waiting for answer in order they were sent */
+    private final ConcurrentLinkedDeque<SimpleBinaryRequest> requests = new ConcurrentLinkedDeque<SimpleBinaryRequest>();
+    /** answer timeout shared by waiting requests, armed for earliest deadline */
+    private final SimpleBinaryTimingWheel.Timeout requestTimeout = SimpleBinaryTimingWheel.getInstance()
+            .newTimeout(this::requestsTimeouted);
+    /** deadline request timeout is armed for [ns] */
+    private long requestDeadline = 0;
 
     public ConcurrentLinkedDeque<SimpleBinaryChannel> getCommandQueue() {
         return commandQueue;
@@ -47,7 +62,6 @@ public class SimpleBinaryDevice {
     public SimpleBinaryDevice(int id) {
         deviceId = id;
         state = new SimpleBinaryDeviceState();
-        receivedMessage.set(SimpleBinaryMessageType.UNKNOWN);
     }
 
     /**
@@ -68,6 +82,15 @@ public class SimpleBinaryDevice {
         return state;
     }
 
+    /**
+     * Return response timeout estimation
+     *
+     * @return
+     */
+    public SimpleBinaryRttEstimator getRtt() {
+        return rtt;
+    }
+
     /**
      * Return things
      *
@@ -87,28 +110,23 @@ public class SimpleBinaryDevice {
     }
 
     /**
-     * Check if device is degraded by degrade period
+     * Check if device is degraded and its off-scan period is not over. Device with elapsed period should be probed
+     * before it is scanned again.
      *
-     * @param degradePeriod
      * @return
      */
-    public boolean stillDegraded(final int degradePeriod) {
-        if (isDegraded && System.currentTimeMillis() - degradeTime < degradePeriod) {
-            return true;
-        }
-        if (isDegraded) {
-            isDegraded = false;
-            failuresCounter = 0;
-        }
-        return false;
+    public boolean stillDegraded() {
+        return isDegraded && System.currentTimeMillis() - degradeTime < degradePeriod;
     }
 
     /**
      * Check if device is unresponsive
      *
      * @param maxFailures Max failure count
+     * @param basePeriod First off-scan period [ms]
+     * @param maxPeriod Maximal off-scan period [ms]
      */
-    public boolean unresponsive(int maxFailures) {
+    public boolean unresponsive(int maxFailures, int basePeriod, int maxPeriod) {
         // 0 -> off-scan mode disabled
         if (maxFailures == 0) {
             return false;
@@ -117,14 +135,51 @@ public class SimpleBinaryDevice {
             return true;
         }
         if (++failuresCounter >= maxFailures) {
-            isDegraded = true;
-            degradeTime = System.currentTimeMillis();
+            degrade(basePeriod, maxPeriod);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Put device off-scan. Off-scan period is doubled with every repeated degradation up to maximal period. Random
+     * part of period spreads probes of devices degraded at once.
+     *
+     * @param basePeriod First off-scan period [ms]
+     * @param maxPeriod Maximal off-scan period [ms]
+     */
+    public void degrade(int basePeriod, int maxPeriod) {
+        long period = Math.min(Math.max(basePeriod, maxPeriod), (long) basePeriod << Math.min(degradeCount, 20));
+
+        isDegraded = true;
+        degradeTime = System.currentTimeMillis();
+        degradePeriod = period / 2 + ThreadLocalRandom.current().nextLong(period / 2 + 1);
+        degradeCount++;
+    }
+
+    /**
+     * Return current off-scan period
+     *
+     * @return Period [ms]
+     */
+    public long getDegradePeriod() {
+        return degradePeriod;
+    }
+
+    /**
+     * Mark new data check of device
+     *
+     * @return Milliseconds since previous check (0 for first check)
+     */
+    public long newDataChecked() {
+        long now = System.currentTimeMillis();
+        long gap = lastNewDataCheck == 0 ? 0 : now - lastNewDataCheck;
+
+        lastNewDataCheck = now;
+        return gap;
+    }
+
     /**
      * Mark online device
      */
@@ -132,6 +187,16 @@ public class SimpleBinaryDevice {
         if (failuresCounter != 0) {
             failuresCounter = 0;
         }
+        isDegraded = false;
+        degradeCount = 0;
+    }
+
+    /**
+     * Return device in-scan without probe. Next degradation continues with longer off-scan period.
+     */
+    public void resume() {
+        isDegraded = false;
+        failuresCounter = 0;
     }
 
     /**
@@ -151,6 +216,16 @@ public class SimpleBinaryDevice {
         }
         // add command into queue
         commandQueue.add(command);
+        commandAdded.set(true);
+    }
+
+    /**
+     * Check if command was added since last check and reset the flag
+     *
+     * @return
+     */
+    public boolean takeCommandAdded() {
+        return commandAdded.getAndSet(false);
     }
 
     /**
@@ -166,25 +241,126 @@ public class SimpleBinaryDevice {
     }
 
     /**
-     * TimerTask for timeout event
+     * Add request waiting for answer
+     *
+     * @param request
+     */
+    public void addRequest(SimpleBinaryRequest request) {
+        requests.add(request);
+    }
+
+    /**
+     * Start answer timeout of sent request
      *
-     * @author Vita Tucek
-     * @since 1.9.0
+     * @param request
+     * @param delay Timeout in milliseconds
+     */
+    public void armRequest(SimpleBinaryRequest request, long delay) {
+        long deadline = request.setDeadline(delay);
+
+        synchronized (requests) {
+            scheduleRequestTimeout(deadline, System.nanoTime());
+        }
+    }
+
+    /**
+     * Arm request timeout if it is not armed for earlier deadline. Must be called with requests locked.
+     *
+     * @param deadline [ns]
+     * @param now [ns]
+     */
+    private void scheduleRequestTimeout(long deadline, long now) {
+        if (!requestTimeout.isArmed() || deadline - requestDeadline < 0) {
+            requestDeadline = deadline;
+            requestTimeout.schedule(Math.max(1, (deadline - now + 999_999L) / 1_000_000L));
+        }
+    }
+
+    /**
+     * Complete expired requests and arm timeout for next deadline
+     */
+    private void requestsTimeouted() {
+        final long now = System.nanoTime();
+        // timeout expires with tick precision
+        final long limit = now + SimpleBinaryTimingWheel.TICK_MS * 1_000_000L;
+        long next = 0;
+        boolean waiting = false;
+
+        for (SimpleBinaryRequest request : requests) {
+            long deadline = request.getDeadline();
+
+            if (deadline == 0) {
+                // not sent yet
+                continue;
+            }
+            if (deadline - limit < 0) {
+                if (requests.remove(request)) {
+                    request.timeouted();
+                }
+            } else if (!waiting || deadline - next < 0) {
+                next = deadline;
+                waiting = true;
+            }
+        }
+
+        if (waiting) {
+            synchronized (requests) {
+                scheduleRequestTimeout(next, now);
+            }
+        }
+    }
+
+    /**
+     * Remove request that was not sent
      *
+     * @param request
      */
-    class TimeoutTask extends TimerTask {
-        /** Channel info **/
-        public final SimpleBinaryDevice device;
-        /** Event **/
-        public final SimpleBinaryIRequestTimeouted event;
+    public void removeRequest(SimpleBinaryRequest request) {
+        requests.remove(request);
+    }
 
-        TimeoutTask(SimpleBinaryDevice device, SimpleBinaryIRequestTimeouted event) {
-            this.device = device;
-            this.event = event;
+    /**
+     * Complete oldest request waiting for answer. Device answers requests in order they were sent.
+     *
+     * @param messageType Type of received message
+     * @return False if no request was waiting
+     */
+    public boolean answerReceived(SimpleBinaryMessageType messageType) {
+        SimpleBinaryRequest request;
+
+        while ((request = requests.poll()) != null) {
+            // skip requests already timeouted
+            if (request.complete(messageType)) {
+                return true;
+            }
         }
 
-        @Override
-        public void run() {
+        return false;
+    }
+
+    /**
+     * Complete given request. Used when answer is matched with request by sequence number.
+     *
+     * @param request
+     * @param messageType Type of received message
+     * @return False if request was already completed
+     */
+    public boolean answerReceived(SimpleBinaryRequest request, SimpleBinaryMessageType messageType) {
+        requests.remove(request);
+
+        return request.complete(messageType);
+    }
+
+    /**
+     * Complete all waiting requests as not answered
+     */
+    public void cancelRequests() {
+        SimpleBinaryRequest request;
+
+        requestTimeout.cancel();
+
+        while ((request = requests.poll()) != null) {
+            request.cancel();
         }
     }
 }
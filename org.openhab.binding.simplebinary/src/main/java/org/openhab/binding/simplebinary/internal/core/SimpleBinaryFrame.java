@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable view of single received frame. Frame is not copied - all values are read directly from underlying buffer.
+ *
+ * View is valid only until buffer content is changed (compact, clear, new data). Frame can be mapped on ring buffer
+ * too - every index is then masked by buffer size.
+ *
+ * When sequence numbers are negotiated with device, every frame carries sequence byte just before CRC.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryFrame {
+    /** frame is not complete yet */
+    public static final int INCOMPLETE = 0;
+    /** message ID is unknown */
+    public static final int UNKNOWN_MESSAGE = -1;
+
+    private ByteBuffer buffer;
+    /** index mask, -1 for linear buffer */
+    private int mask = -1;
+    private int offset;
+    private int length;
+    private int expectedLength;
+    private int deviceId;
+    private byte messageId;
+    private int address;
+    private int valueOffset;
+    private int valueLength;
+    /** frame carries item address and value (could be empty array) */
+    private boolean hasValue;
+    /** frames carry sequence byte */
+    private boolean sequenced = false;
+
+    /**
+     * Map frame on buffer data starting at given offset. Buffer position is not changed.
+     *
+     * @param buffer Buffer with received data
+     * @param offset Frame start index
+     * @param limit Index after last valid byte
+     * @return Frame length, INCOMPLETE or UNKNOWN_MESSAGE
+     */
+    public int wrap(ByteBuffer buffer, int offset, int limit) {
+        return wrap(buffer, -1, offset, limit);
+    }
+
+    /**
+     * Map frame on ring buffer data starting at given offset. Buffer position is not changed.
+     *
+     * @param buffer Buffer with received data
+     * @param mask Index mask (buffer capacity - 1) or -1 for linear buffer
+     * @param offset Frame start index
+     * @param limit Index after last valid byte (could exceed buffer capacity)
+     * @return Frame length, INCOMPLETE or UNKNOWN_MESSAGE
+     */
+    public int wrap(ByteBuffer buffer, int mask, int offset, int limit) {
+        this.buffer = buffer;
+        this.mask = mask;
+        this.offset = offset;
+        this.length = 0;
+        this.expectedLength = 0;
+        this.address = -1;
+        this.valueOffset = 0;
+        this.valueLength = 0;
+        this.hasValue = false;
+
+        int available = limit - offset;
+
+        if (available < 2) {
+            return INCOMPLETE;
+        }
+
+        deviceId = buffer.get(offset & mask) & 0xFF;
+        messageId = buffer.get((offset + 1) & mask);
+
+        int frameLength;
+
+        switch (messageId) {
+            case (byte) 0xDA:
+                valueLength = 1;
+                frameLength = 6;
+                break;
+            case (byte) 0xDB:
+                valueLength = 2;
+                frameLength = 7;
+                break;
+            case (byte) 0xDC:
+            case (byte) 0xDD:
+                valueLength = 4;
+                frameLength = 9;
+                break;
+            case (byte) 0xDE:
+                if (available < 6) {
+                    return INCOMPLETE;
+                }
+                valueLength = getWord(offset + 4);
+                frameLength = 7 + valueLength;
+                break;
+            case (byte) 0xE0:
+            case (byte) 0xE1:
+            case (byte) 0xE2:
+            case (byte) 0xE3:
+            case (byte) 0xE4:
+            case (byte) 0xE5:
+            case (byte) 0xE6:
+            case (byte) 0xE7:
+                frameLength = 4;
+                break;
+            default:
+                return UNKNOWN_MESSAGE;
+        }
+
+        // data messages carry address even with empty value
+        hasValue = messageId >= (byte) 0xDA && messageId <= (byte) 0xDE;
+
+        if (sequenced) {
+            frameLength++;
+        }
+
+        expectedLength = frameLength;
+
+        if (available < frameLength) {
+            return INCOMPLETE;
+        }
+
+        if (hasValue) {
+            address = getWord(offset + 2);
+            valueOffset = offset + frameLength - (sequenced ? 2 : 1) - valueLength;
+        }
+
+        length = frameLength;
+
+        return frameLength;
+    }
+
+    private int getWord(int index) {
+        return (buffer.get(index & mask) & 0xFF) | ((buffer.get((index + 1) & mask) & 0xFF) << 8);
+    }
+
+    /**
+     * Set if frames carry sequence byte
+     *
+     * @param sequenced
+     */
+    public void setSequenced(boolean sequenced) {
+        this.sequenced = sequenced;
+    }
+
+    /**
+     * Check if frames carry sequence byte
+     *
+     * @return
+     */
+    public boolean isSequenced() {
+        return sequenced;
+    }
+
+    /**
+     * Return received sequence number
+     *
+     * @return Sequence number or -1 if frames don't carry sequence byte
+     */
+    public int getSequence() {
+        if (!sequenced || length == 0) {
+            return -1;
+        }
+        return buffer.get((offset + length - 2) & mask) & 0xFF;
+    }
+
+    /**
+     * Return received CRC
+     *
+     * @return
+     */
+    public byte getCrc() {
+        return buffer.get((offset + length - 1) & mask);
+    }
+
+    /**
+     * Count CRC of received frame
+     *
+     * @return
+     */
+    public byte evalCrc() {
+        return SimpleBinaryCRC8.eval(buffer, mask, offset, offset + length - 1);
+    }
+
+    /**
+     * Check frame CRC
+     *
+     * @return
+     */
+    public boolean isCrcValid() {
+        return getCrc() == evalCrc();
+    }
+
+    /**
+     * Check if frame carry item address and value. Value of array could be empty.
+     *
+     * @return
+     */
+    public boolean hasValue() {
+        return hasValue;
+    }
+
+    /**
+     * Return frame length including CRC
+     *
+     * @return
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Return length of frame known from header even if frame is not complete yet. Zero if header is not complete.
+     *
+     * @return
+     */
+    public int getExpectedLength() {
+        return expectedLength;
+    }
+
+    /**
+     * Return frame start index in buffer
+     *
+     * @return
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Return received device ID
+     *
+     * @return
+     */
+    public int getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Return message ID
+     *
+     * @return
+     */
+    public byte getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Return message type depending on message ID
+     *
+     * @return
+     */
+    public SimpleBinaryMessageType getMessageType() {
+        return SimpleBinaryMessage.getMessageType(messageId);
+    }
+
+    /**
+     * Return item address or -1 if frame doesn't carry item value
+     *
+     * @return
+     */
+    public int getAddress() {
+        return address;
+    }
+
+    /**
+     * Return underlying buffer
+     *
+     * @return
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Return index mask of underlying buffer (-1 for linear buffer)
+     *
+     * @return
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Return index of first value byte in underlying buffer (not masked)
+     *
+     * @return
+     */
+    public int getValueOffset() {
+        return valueOffset;
+    }
+
+    /**
+     * Return value length
+     *
+     * @return
+     */
+    public int getValueLength() {
+        return valueLength;
+    }
+
+    /**
+     * Return single value byte
+     *
+     * @param index Index in value
+     * @return
+     */
+    public byte getValue(int index) {
+        return buffer.get((valueOffset + index) & mask);
+    }
+
+    /**
+     * Copy value into new array
+     *
+     * @return
+     */
+    public byte[] getValueArray() {
+        byte[] value = new byte[valueLength];
+
+        for (int i = 0; i < valueLength; i++) {
+            value[i] = buffer.get((valueOffset + i) & mask);
+        }
+
+        return value;
+    }
+}
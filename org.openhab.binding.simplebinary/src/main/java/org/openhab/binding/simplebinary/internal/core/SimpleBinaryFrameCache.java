@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Cache of precompiled poll request frames. Frames are compiled (including CRC) once and then only sent.
+ *
+ * Cached frames must not be modified.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryFrameCache {
+    /** "read data" frames by state channel */
+    private final IdentityHashMap<SimpleBinaryChannel, SimpleBinaryItemData> readFrames;
+    /** "new data" frames by device ID */
+    private final SimpleBinaryItemData[] newDataFrames = new SimpleBinaryItemData[256];
+    /** "new data" frames with force flag by device ID */
+    private final SimpleBinaryItemData[] forcedNewDataFrames = new SimpleBinaryItemData[256];
+
+    /**
+     * Construct cache for given state channels and devices
+     *
+     * @param stateItems
+     * @param devices
+     */
+    public SimpleBinaryFrameCache(List<SimpleBinaryChannel> stateItems, SimpleBinaryDeviceCollection devices) {
+        readFrames = new IdentityHashMap<>(stateItems.size());
+
+        for (SimpleBinaryChannel item : stateItems) {
+            if (item.getStateAddress() != null) {
+                readFrames.put(item, SimpleBinaryProtocol.compileReadDataFrame(item.getStateAddress()));
+            }
+        }
+
+        for (Integer deviceId : devices.keySet()) {
+            getNewDataFrame(deviceId, false);
+            getNewDataFrame(deviceId, true);
+        }
+    }
+
+    /**
+     * Return "read data" frame for state channel
+     *
+     * @param item
+     * @return
+     */
+    public SimpleBinaryItemData getReadFrame(SimpleBinaryChannel item) {
+        SimpleBinaryItemData data = readFrames.get(item);
+
+        if (data == null) {
+            data = SimpleBinaryProtocol.compileReadDataFrame(item.getStateAddress());
+        }
+
+        return data;
+    }
+
+    /**
+     * Return "new data" frame for device. Frame for device added later is compiled on first use.
+     *
+     * @param deviceId
+     * @param forceAllDataAsNew
+     * @return
+     */
+    public SimpleBinaryItemData getNewDataFrame(int deviceId, boolean forceAllDataAsNew) {
+        SimpleBinaryItemData[] frames = forceAllDataAsNew ? forcedNewDataFrames : newDataFrames;
+        int index = deviceId & 0xFF;
+        SimpleBinaryItemData data = frames[index];
+
+        if (data == null) {
+            data = SimpleBinaryProtocol.compileNewDataFrame(deviceId, forceAllDataAsNew);
+            frames[index] = data;
+        }
+
+        return data;
+    }
+}
@@ -8,18 +8,24 @@
  */
 package org.openhab.binding.simplebinary.internal.core;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.nio.BufferUnderflowException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.Nullable;
@@ -41,6 +47,10 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
     private static final String THING_HANDLER_THREADPOOL_NAME = "SimpleBinary";
     protected final ScheduledExecutorService scheduler = ThreadPoolManager
             .getScheduledPool(THING_HANDLER_THREADPOOL_NAME);
+    /** request timeout reserve - transport detects missing answer first */
+    protected static final int REQUEST_TIMEOUT_RESERVE = 1000;
+    /** maximum continuous poll sleep when there is nothing to read */
+    private static final long CONTINUOUS_IDLE_MS = 1000;
 
     /** device ID ex.: , COM1, /dev/ttyS1, 192.168.1.1, ... */
     protected final String deviceID;
@@ -51,6 +61,12 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
     protected SimpleBinaryDeviceCollection devices;
     protected ArrayList<@NonNull SimpleBinaryChannel> stateItems;
     protected ArrayList<@NonNull SimpleBinaryChannel> commandItems;
+    /** state items indexed by device ID and address */
+    protected SimpleBinaryChannelIndex stateItemsIndex;
+    /** schedule of state items reading in ONSCAN mode */
+    protected SimpleBinaryPollScheduler pollScheduler;
+    /** precompiled poll requests */
+    protected SimpleBinaryFrameCache frameCache;
     /** flag that device is connected */
     private final AtomicBoolean connected = new AtomicBoolean();
     /** flag waiting */
@@ -63,6 +79,10 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
     protected synchronized void setConnected(boolean connected, String reason) {
         this.connected.set(connected);
 
+        if (connected) {
+            wakeUp();
+        }
+
         if (onChange != null) {
             try {
                 onChange.onConnectionChanged(connected, reason);
@@ -85,16 +105,26 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
 
     /** response timeout [ms] */
     protected final int timeout;
+    /** lower bound of estimated response timeout [ms] */
+    protected final int minTimeout;
     /** poll rate */
     protected final int pollRate;
     /** no response count before device is mark as degraded */
     protected final int degradeMaxFailuresCount;
     /** time as degraded device */
     protected final int degradeTime;
+    /** maximal time as degraded device */
+    protected final int degradeMaxTime;
     /** command discarded by offline device */
     protected final boolean discardCommand;
     /** command sync when get online */
     protected final boolean syncCommand;
+    /** maximum count of new data requests per device in one cycle (0 - unlimited) */
+    protected final int maxNewDataFrames;
+    /** rotating index of device polled first in ONCHANGE mode */
+    private int firstDeviceIndex = 0;
+    /** time between two new data checks of devices in metrics period */
+    private final SimpleBinaryPollLatency pollLatency = new SimpleBinaryPollLatency();
     /** execute() call time */
     private long lastExecTime = 0;
     /** Used pool control ex.: OnChange, OnScan */
@@ -117,13 +147,25 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
     protected boolean disposed = false;
 
     private @Nullable ScheduledFuture<?> periodicJob = null;
+    /** thread of continuous poll (poll rate not set) */
+    private @Nullable Thread pollThread = null;
 
-    // protected final Lock processLock = new ReentrantLock();
-    protected final Lock execLock = new ReentrantLock();
+    /** command added to some device since last check */
+    private final AtomicBoolean commandsPending = new AtomicBoolean();
+    /** running poll cycle or commands sending, null when idle */
+    private final AtomicReference<@Nullable CompletableFuture<Void>> activity = new AtomicReference<>();
 
     final AtomicLong readed = new AtomicLong(0);
     final AtomicLong readedBytes = new AtomicLong(0);
+    /** bytes discarded while resynchronizing input stream */
+    final AtomicLong discardedBytes = new AtomicLong(0);
+    /** bytes dropped because receive buffer was full */
+    final AtomicLong overrunBytes = new AtomicLong(0);
+    /** count of requests sent to devices */
+    final AtomicLong sentRequests = new AtomicLong(0);
     long metricsStart = 0, diff, sessionStart, sessionEnd, lastDuration = 0;
+    /** sum of cycle durations in metrics period */
+    long busyTime = 0;
     private final SimpleBinaryICommandAdded eventCommandAdded;
 
     /**
@@ -133,39 +175,39 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
      * @param simpleBinaryPoolControl
      * @param pollRate
      * @param charset
-     * @param timeout
+     * @param timeout Maximum response timeout
+     * @param minTimeout Minimum response timeout
      * @param degradeMaxFailuresCount
      * @param degradeTime
+     * @param degradeMaxTime
      * @param discardCommand
      * @param syncCommand
+     * @param maxNewDataFrames
      */
     public SimpleBinaryGenericDevice(String deviceID, SimpleBinaryPollControl simpleBinaryPoolControl, int pollRate,
-            Charset charset, int timeout, int degradeMaxFailuresCount, int degradeTime, boolean discardCommand,
-            boolean syncCommand) {
+            Charset charset, int timeout, int minTimeout, int degradeMaxFailuresCount, int degradeTime,
+            int degradeMaxTime, boolean discardCommand, boolean syncCommand, int maxNewDataFrames) {
         this.deviceID = deviceID;
         this.pollControl = simpleBinaryPoolControl;
         this.devices = new SimpleBinaryDeviceCollection();
-        this.timeout = pollRate;
+        this.timeout = timeout;
+        this.minTimeout = Math.max(1, Math.min(minTimeout, timeout));
         this.pollRate = pollRate;
         this.degradeMaxFailuresCount = degradeMaxFailuresCount;
         this.degradeTime = degradeTime;
+        this.degradeMaxTime = Math.max(degradeTime, degradeMaxTime);
         this.discardCommand = discardCommand;
         this.syncCommand = syncCommand;
+        this.maxNewDataFrames = Math.max(0, maxNewDataFrames);
 
         this.charset = charset;
 
         this.eventCommandAdded = new SimpleBinaryICommandAdded() {
             @Override
             public void event(SimpleBinaryDevice device) {
-                if (execLock.tryLock()) {
-                    try {
-                        // send commands
-                        sendDeviceCommands(device);
-                    } catch (Exception ex) {
-                        logger.error("{} - eventCommandAdded error.", toString(), ex);
-                    } finally {
-                        execLock.unlock();
-                    }
+                // send commands (poll cycle sends them otherwise)
+                if (startActivity(() -> sendDeviceCommands(device)) == null) {
+                    wakeUp();
                 }
             }
         };
@@ -175,11 +217,71 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
                 execute();
             }, 500, pollRate, TimeUnit.MILLISECONDS);
         } else {
-            scheduler.execute(() -> {
-                while (!disposed) {
-                    execute();
+            pollThread = createPollThread(this::pollContinuously, "SimpleBinaryPoll-" + deviceID);
+            pollThread.start();
+        }
+    }
+
+    /**
+     * Create thread for continuous poll. Virtual thread is used when running JVM supports it.
+     *
+     * @param task
+     * @param name
+     * @return Unstarted thread
+     */
+    private static Thread createPollThread(Runnable task, String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class).invoke(builder, name);
+
+            return (Thread) builderClass.getMethod("unstarted", Runnable.class).invoke(builder, task);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // virtual threads not available
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+
+    /**
+     * Poll devices one cycle after another. When cycle sends nothing (not connected, devices off-scan, ...) thread
+     * sleeps until some event or until idle period elapses.
+     */
+    private void pollContinuously() {
+        logger.debug("{} - Continuous poll started in {}", toString(), Thread.currentThread());
+
+        while (!disposed) {
+            long sent = sentRequests.get();
+
+            execute().join();
+
+            if (sentRequests.get() == sent && !disposed) {
+                long idle = CONTINUOUS_IDLE_MS;
+                // sleep until next read is due. Due time already passed means that due reads could not be sent
+                // (not connected, devices off-scan, ...) - they are retried after idle period.
+                if (pollControl == SimpleBinaryPollControl.ONSCAN && pollScheduler != null) {
+                    long due = pollScheduler.getNextDue() - System.currentTimeMillis();
+                    if (due > 0) {
+                        idle = Math.min(idle, due);
+                    }
                 }
-            });
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(idle));
+            }
+        }
+
+        logger.debug("{} - Continuous poll finished", toString());
+    }
+
+    /**
+     * Wake up sleeping continuous poll
+     */
+    protected void wakeUp() {
+        final Thread thread = pollThread;
+
+        if (thread != null) {
+            LockSupport.unpark(thread);
         }
     }
 
@@ -198,6 +300,8 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
             periodicJob = null;
             logger.debug("{} - Periodic job cancelled", toString());
         }
+
+        wakeUp();
     }
 
     /**
@@ -226,30 +330,60 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
 
     /**
      * Called at specified period
+     *
+     * @return Future completed when poll cycle is finished
      */
-    private void execute() {
+    private CompletableFuture<Void> execute() {
         logger.debug("{} - execute()", toString());
-        if (!execLock.tryLock()) {
-            logger.debug("{} - execute already locked...", toString());
-            return;
-        }
 
-        try {
+        CompletableFuture<Void> cycle = startActivity(() -> {
             long execTime = System.currentTimeMillis();
             // prevent too fast calling
             if (Math.abs(lastExecTime - execTime) < pollRate / 2) {
-                return;
+                return CompletableFuture.completedFuture(null);
             }
             lastExecTime = execTime;
-            // check device for new data
-            checkNewData();
-            // check device for timeout connection (if implemented)
-            checkConnectionTimeout();
+            // check device for new data, then check device for timeout connection (if implemented)
+            return checkNewData().thenRun(this::checkConnectionTimeout);
+        });
+
+        if (cycle == null) {
+            logger.debug("{} - execute already running...", toString());
+            cycle = activity.get();
+        }
+
+        return cycle != null ? cycle : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Start task if no poll cycle or commands sending is running
+     *
+     * @param task
+     * @return Future completed when task is finished or null if another task is running
+     */
+    private @Nullable CompletableFuture<Void> startActivity(Supplier<CompletableFuture<?>> task) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        if (!activity.compareAndSet(null, done)) {
+            return null;
+        }
+
+        CompletableFuture<?> running;
+        try {
+            running = task.get();
         } catch (Exception ex) {
-            logger.error("{} - execute failure.", toString(), ex);
-        } finally {
-            execLock.unlock();
+            running = CompletableFuture.failedFuture(ex);
         }
+
+        running.whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.error("{} - execute failure.", toString(), ex);
+            }
+            activity.set(null);
+            done.complete(null);
+        });
+
+        return done;
     }
 
     @Override
@@ -280,6 +414,7 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
             return;
         }
         devices.get(addr.getDeviceId()).addCommand(data);
+        commandsPending.set(true);
         if (this.eventCommandAdded != null) {
             this.eventCommandAdded.event(devices.get(addr.getDeviceId()));
         }
@@ -289,17 +424,17 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
      * Prepare request for read data of specific item
      *
      * @param itemConfig
-     * @throws InterruptedException
+     * @return Future completed with answer type
      */
-    private boolean sendReadData(SimpleBinaryChannel item) {
+    private CompletableFuture<SimpleBinaryMessageType> sendReadData(SimpleBinaryChannel item) {
         if (!devices.containsKey(item.getStateAddress().getDeviceId())) {
             logger.error("{} - No device for command channelId={}", this.toString(), item.channelId);
-            return false;
+            return CompletableFuture.completedFuture(SimpleBinaryMessageType.UNKNOWN);
         }
 
-        SimpleBinaryItemData data = SimpleBinaryProtocol.compileReadDataFrame(item.getStateAddress());
+        SimpleBinaryItemData data = frameCache.getReadFrame(item);
 
-        return sendWait(devices.get(item.getStateAddress().getDeviceId()), data);
+        return sendRequest(devices.get(item.getStateAddress().getDeviceId()), data);
     }
 
     protected boolean canSend() {
@@ -310,6 +445,118 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
         return true;
     }
 
+    /**
+     * Check if answer from device is expected
+     *
+     * @param devId
+     * @return
+     */
+    protected boolean isWaitingForAnswer(int devId) {
+        return waitingForAnswer.get();
+    }
+
+    /**
+     * Return count of requests that can be sent to device without waiting for answer
+     *
+     * @param devId
+     * @return
+     */
+    protected int getRequestWindow(int devId) {
+        return 1;
+    }
+
+    /**
+     * Check if another request can be sent to device before answer of previous one come
+     *
+     * @param devId
+     * @return
+     */
+    protected boolean isWindowFull(int devId) {
+        return isWaitingForAnswer(devId);
+    }
+
+    /**
+     * Complete oldest request waiting for answer from device
+     *
+     * @param devId
+     * @param messageType Type of received message
+     */
+    protected void notifyDevice(int devId, SimpleBinaryMessageType messageType) {
+        SimpleBinaryDevice device = devices.get(devId);
+
+        if (device != null) {
+            device.answerReceived(messageType);
+        }
+    }
+
+    /**
+     * Complete request matched with received answer
+     *
+     * @param devId
+     * @param request Answered request
+     * @param messageType Type of received message
+     */
+    protected void notifyDevice(int devId, SimpleBinaryRequest request, SimpleBinaryMessageType messageType) {
+        SimpleBinaryDevice device = devices.get(devId);
+
+        if (device != null) {
+            device.answerReceived(request, messageType);
+        } else {
+            request.complete(messageType);
+        }
+    }
+
+    /**
+     * Restart answer timeout of request written again by transport
+     *
+     * @param devId
+     * @param request
+     */
+    protected void requestResent(int devId, SimpleBinaryRequest request) {
+        SimpleBinaryDevice device = devices.get(devId);
+
+        if (device != null) {
+            device.armRequest(request, getRequestBackstop(device, request.getData()));
+        }
+    }
+
+    /**
+     * Complete request discarded by transport before it was written
+     *
+     * @param devId
+     * @param request
+     */
+    protected void requestDiscarded(int devId, SimpleBinaryRequest request) {
+        SimpleBinaryDevice device = devices.get(devId);
+
+        if (device != null) {
+            device.removeRequest(request);
+        }
+        request.discard();
+    }
+
+    /**
+     * Complete all requests waiting for answer from device as not answered
+     *
+     * @param devId
+     */
+    protected void cancelRequests(int devId) {
+        SimpleBinaryDevice device = devices.get(devId);
+
+        if (device != null) {
+            device.cancelRequests();
+        }
+    }
+
+    /**
+     * Poll devices concurrently. Useful when every device has its own connection.
+     *
+     * @return
+     */
+    protected boolean isConcurrentPolling() {
+        return false;
+    }
+
     /**
      * Write data into device stream
      *
@@ -325,452 +572,915 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
         return false;
     }
 
+    /**
+     * Write request into device stream. Transport matching answers with requests could keep the request.
+     *
+     * @param request
+     *            Request with item data
+     * @return
+     *         Return true when data were sent
+     */
+    protected boolean sendDataOut(SimpleBinaryRequest request) {
+        return sendDataOut(request.getData());
+    }
+
     /**
      * Print communication information
      *
      */
-    protected void printCommunicationInfo(SimpleBinaryByteBuffer inBuffer, SimpleBinaryItemData lastSentData) {
-        try {
-            // content of input buffer
-            int position = inBuffer.position();
-            inBuffer.rewind();
-            byte[] data = new byte[inBuffer.limit()];
-            inBuffer.get(data);
-            inBuffer.position(position);
+    protected void printCommunicationInfo(SimpleBinaryRingBuffer inBuffer, SimpleBinaryItemData lastSentData) {
+        // content of input buffer
+        byte[] data = inBuffer.toArray();
 
-            logger.info("{} - Data in input buffer: {}", toString(),
-                    (data.length == 0) ? "empty" : SimpleBinaryProtocol.arrayToString(data, data.length));
+        logger.info("{} - Data in input buffer: {}", toString(),
+                (data.length == 0) ? "empty" : SimpleBinaryProtocol.arrayToString(data, data.length));
 
-            if (lastSentData != null) {
-                // last data out
-                logger.info("{} - Last sent data: {}", toString(),
-                        SimpleBinaryProtocol.arrayToString(lastSentData.getData(), lastSentData.getData().length));
-            }
-        } catch (ModeChangeException e) {
-            logger.error(e.getMessage());
+        if (lastSentData != null) {
+            // last data out
+            logger.info("{} - Last sent data: {}", toString(),
+                    SimpleBinaryProtocol.arrayToString(lastSentData.getData(), lastSentData.getData().length));
         }
     }
 
-    protected boolean sendWait(SimpleBinaryDevice device, SimpleBinaryItemData data) {
-        device.receivedMessage.set(SimpleBinaryMessageType.UNKNOWN);
-        if (!sendDataOut(data)) {
-            if (device.unresponsive(degradeMaxFailuresCount)) {
-                logger.info("{} - Device {} is set off-scan", toString(), data.getDeviceId());
-            }
-            return false;
+    /**
+     * Check if message type means that request was processed by device
+     *
+     * @param messageType
+     * @return
+     */
+    private static boolean isAnswered(SimpleBinaryMessageType messageType) {
+        return messageType != SimpleBinaryMessageType.UNKNOWN && messageType != SimpleBinaryMessageType.RESEND;
+    }
+
+    /**
+     * Send request to device. Request is sent again if device ask for resend.
+     *
+     * @param device
+     * @param data
+     * @return Future completed with answer type. UNKNOWN if device is not responding, RESEND if resend attempts
+     *         are exhausted.
+     */
+    protected CompletableFuture<SimpleBinaryMessageType> sendRequest(SimpleBinaryDevice device,
+            SimpleBinaryItemData data) {
+        // data could be cached frame sent repeatedly
+        data.resetResendCounter();
+
+        return transmit(device, data).thenCompose(messageType -> answered(device, data, messageType));
+    }
+
+    /**
+     * Send data once. Answer future is completed in thread pool so transport threads are not used by further
+     * processing.
+     *
+     * @param device
+     * @param data
+     * @return Future completed with answer type or UNKNOWN if device is not responding
+     */
+    private CompletableFuture<SimpleBinaryMessageType> transmit(SimpleBinaryDevice device,
+            SimpleBinaryItemData data) {
+        final SimpleBinaryRequest request = new SimpleBinaryRequest(data);
+
+        // answer could come before sendDataOut() returns
+        device.addRequest(request);
+
+        final boolean sent = sendDataOut(request);
+
+        if (!sent) {
+            device.removeRequest(request);
+            request.cancel();
+        } else {
+            sentRequests.incrementAndGet();
+            device.armRequest(request, getRequestBackstop(device, data));
         }
-        // wait for answer
-        synchronized (device) {
-            try {
-                while (waitingForAnswer.get()) {
-                    logger.debug("{} - Device {} waiting for answer now.", toString(), data.getDeviceId());
-                    device.wait();
-                }
-            } catch (InterruptedException ex) {
-                logger.debug("{} - device.wait() interrupted", toString());
-                return false;
-            } catch (Exception ex) {
-                logger.error("{} - device.wait() error", toString(), ex);
-                return false;
+
+        return request.getAnswer().handleAsync((messageType, ex) -> {
+            if (ex != null) {
+                logger.debug("{} - {}", toString(), ex.getMessage());
+                device.removeRequest(request);
+                messageType = SimpleBinaryMessageType.UNKNOWN;
             }
-        }
+            if (!sent || request.isDiscarded()) {
+                return messageType;
+            }
+            if (messageType == SimpleBinaryMessageType.UNKNOWN) {
+                device.getRtt().backoff(timeout);
+            } else if (data.getResendCounter() == 0) {
+                // answer of resent request can belong to any attempt
+                device.getRtt().sample(request.getRoundTripTime());
+            }
+            return messageType;
+        }, scheduler);
+    }
+
+    /**
+     * Return time after which request not answered in time by transport is completed as not answered. It must not
+     * expire before transport answer timeout.
+     *
+     * @param device
+     * @param data Sent request
+     * @return Timeout [ms]
+     */
+    protected int getRequestBackstop(SimpleBinaryDevice device, SimpleBinaryItemData data) {
+        return getRequestTimeout(device) + REQUEST_TIMEOUT_RESERVE;
+    }
+
+    /**
+     * Return response timeout of device estimated from its round trip times
+     *
+     * @param device
+     * @return Timeout [ms]
+     */
+    protected int getRequestTimeout(SimpleBinaryDevice device) {
+        return device.getRtt().getTimeout(minTimeout, timeout);
+    }
 
-        if (device.receivedMessage.get() == SimpleBinaryMessageType.UNKNOWN) {
+    /**
+     * Return response timeout of device estimated from its round trip times
+     *
+     * @param deviceId
+     * @return Timeout [ms]
+     */
+    protected int getRequestTimeout(int deviceId) {
+        final SimpleBinaryDevice device = devices.get(deviceId);
+
+        return device != null ? getRequestTimeout(device) : timeout;
+    }
+
+    /**
+     * Evaluate answer of request sent by {@link #sendRequest}
+     *
+     * @param device
+     * @param data
+     * @param messageType
+     * @return
+     */
+    private CompletableFuture<SimpleBinaryMessageType> answered(SimpleBinaryDevice device,
+            SimpleBinaryItemData data, SimpleBinaryMessageType messageType) {
+        if (messageType == SimpleBinaryMessageType.UNKNOWN) {
             logger.info("{} - Device {} not responding", toString(), data.getDeviceId());
-            if (device.unresponsive(degradeMaxFailuresCount)) {
+            if (device.unresponsive(degradeMaxFailuresCount, degradeTime, degradeMaxTime)) {
                 logger.info("{} - Device {} is set off-scan", toString(), data.getDeviceId());
             }
-            return false;
+            return CompletableFuture.completedFuture(messageType);
         }
         if (logger.isDebugEnabled()) {
-            logger.debug("{} - Device {} notify message {}", toString(), data.getDeviceId(), device.receivedMessage);
+            logger.debug("{} - Device {} notify message {}", toString(), data.getDeviceId(), messageType);
         }
-        if (device.receivedMessage.get() == SimpleBinaryMessageType.RESEND) {
+        if (messageType == SimpleBinaryMessageType.RESEND) {
             if (data.getResendCounter() < MAX_RESEND_COUNT) {
                 data.incrementResendCounter();
                 logger.debug("{} - Device {} - Resend data for {}. time", this.toString(), data.getDeviceId(),
                         data.getResendCounter());
-                return sendWait(device, data);
+                return transmit(device, data).thenCompose(type -> answered(device, data, type));
             } else {
                 logger.warn("{} - Device {} - Max resend attempts reached.", this.toString(), data.getDeviceId());
                 // set state
                 setDeviceState(data.getDeviceId(), DeviceStates.RESPONSE_ERROR);
-                return false;
+                return CompletableFuture.completedFuture(messageType);
             }
         }
         // device responding
         device.alive();
-        return true;
+        return CompletableFuture.completedFuture(messageType);
     }
 
     /**
-     * @see org.openhab.binding.simplebinary.internal.SimpleBinaryIDevice#checkNewData()
+     * Keep several requests outstanding at once. Next request is sent when request window is not full and when
+     * any answer come. Device resend requests are handled by transport.
+     *
+     * @param device
+     * @param deviceId
+     * @param firstAnswer Answer type passed to first next() call
+     * @param next Return next request depending on last answer type or null if there is nothing more to send
+     * @return Future completed when all sent requests are answered. False if device is not responding.
      */
-    @Override
-    public void checkNewData() {
-        if (!isConnected()) {
-            return;
-        }
+    private CompletableFuture<Boolean> sendPipelined(SimpleBinaryDevice device, int deviceId,
+            @Nullable SimpleBinaryMessageType firstAnswer,
+            Function<@Nullable SimpleBinaryMessageType, SimpleBinaryItemData> next) {
+        RequestPipeline pipeline = new RequestPipeline(device, deviceId, next);
+        pipeline.fill(firstAnswer);
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("{} - checkNewData() in mode {} is called", toString(), pollControl);
-        }
+        return pipeline.done;
+    }
 
-        sessionStart = System.currentTimeMillis();
+    /**
+     * Requests outstanding at once for one device
+     */
+    private class RequestPipeline {
+        private final SimpleBinaryDevice device;
+        private final int deviceId;
+        private final Function<@Nullable SimpleBinaryMessageType, SimpleBinaryItemData> next;
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        /** requests sent and not answered yet */
+        private int outstanding = 0;
+        private boolean finished = false;
+        private boolean responding = true;
+
+        RequestPipeline(SimpleBinaryDevice device, int deviceId,
+                Function<@Nullable SimpleBinaryMessageType, SimpleBinaryItemData> next) {
+            this.device = device;
+            this.deviceId = deviceId;
+            this.next = next;
+        }
 
-        if (pollControl == SimpleBinaryPollControl.ONSCAN) {
-            for (SimpleBinaryChannel item : stateItems) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} - checkNewData() onscan channelId={}", toString(), item.channelId);
-                }
-                if (devices.containsKey(item.getStateAddress().getDeviceId())) {
-                    var device = devices.get(item.getStateAddress().getDeviceId());
-                    if (device.isDegraded()) {
-                        if (device.stillDegraded(degradeTime)) {
-                            logger.debug("{} - Device {} is off-scan. Skip...", toString(),
-                                    item.getStateAddress().getDeviceId());
-                            continue;
-                        } else {
-                            logger.info("{} - Device {} is back in-scan", toString(),
-                                    item.getStateAddress().getDeviceId());
-                        }
-                    }
-                }
-                if (!sendReadData(item)) {
-                    logger.debug("{} - Item can not be read.", toString());
-                    continue;
-                }
-            }
-            // send commands
-            for (var device : devices.entrySet()) {
-                sendDeviceCommands(device.getValue());
-            }
-        } else if (pollControl == SimpleBinaryPollControl.ONCHANGE) {
-            // take every device and create for him command depend on his state
-            for (var device : devices.entrySet()) {
-                // not responding for defined times -> degrade device for defined time
-                // still degrade (off-scan) -> get next
-                if (device.getValue().isDegraded()) {
-                    if (device.getValue().stillDegraded(degradeTime)) {
-                        logger.debug("{} - Device {} is off-scan. Skip...", toString(), device.getKey());
-                        continue;
-                    } else {
-                        logger.info("{} - Device {} is back in-scan", toString(), device.getKey());
-                    }
-                }
-                if (!canSend(device.getKey())) {
-                    logger.debug("{} - Device {} can not send data", toString(), device.getKey());
-                    continue;
+        synchronized void fill(@Nullable SimpleBinaryMessageType lastAnswer) {
+            while (!finished && !isWindowFull(deviceId)) {
+                SimpleBinaryItemData data = next.apply(lastAnswer);
+                if (data == null) {
+                    finished = true;
+                    break;
                 }
-                // not responding -> force
-                DeviceStates state = device.getValue().getState().getState();
-                boolean forceAllValues = state == DeviceStates.UNKNOWN || state == DeviceStates.NOT_RESPONDING
-                        || state == DeviceStates.RESPONSE_ERROR;
 
-                if (logger.isDebugEnabled()) {
-                    logger.debug("{} - Device {} force={}", toString(), device.getKey(), forceAllValues);
-                }
-                // send "new data"
-                SimpleBinaryItemData data = SimpleBinaryProtocol.compileNewDataFrame(device.getKey(), forceAllValues);
-                do {
-                    if (!sendWait(device.getValue(), data)) {
-                        break;
-                    }
+                data.resetResendCounter();
+                outstanding++;
+                transmit(device, data).thenAccept(this::answered);
+            }
 
-                    if (device.getValue().receivedMessage.get() == SimpleBinaryMessageType.DATA) {
-                        // if data income on request "check new data" send it again for new check
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("{} - Device {} Repeat CHECKNEWDATA command", toString(), device.getKey());
-                        }
-                        // send new request immediately and without "force all data as new"
-                        data = SimpleBinaryProtocol.compileNewDataFrame(device.getKey(), false);
+            if (outstanding == 0 && !done.isDone()) {
+                if (responding) {
+                    device.alive();
+                } else {
+                    logger.info("{} - Device {} not responding", SimpleBinaryGenericDevice.this.toString(), deviceId);
+                    if (device.unresponsive(degradeMaxFailuresCount, degradeTime, degradeMaxTime)) {
+                        logger.info("{} - Device {} is set off-scan", SimpleBinaryGenericDevice.this.toString(),
+                                deviceId);
                     }
-                } while (device.getValue().receivedMessage.get() == SimpleBinaryMessageType.DATA);
-
-                if (device.getValue().receivedMessage.get() == SimpleBinaryMessageType.UNKNOWN) {
-                    continue;
                 }
-                // send commands
-                sendDeviceCommands(device.getValue());
+                done.complete(responding);
             }
         }
 
-        sessionEnd = System.currentTimeMillis();
+        synchronized void answered(SimpleBinaryMessageType messageType) {
+            outstanding--;
 
-        if (sessionEnd - sessionStart != lastDuration) {
-            lastDuration = sessionEnd - sessionStart;
-            if (onCycleTime != null) {
-                onCycleTime.onCycleTimeUpdated(lastDuration);
+            if (messageType == SimpleBinaryMessageType.UNKNOWN) {
+                // not responding - just wait for the rest
+                responding = false;
+                finished = true;
             }
-        }
-
-        if ((diff = (sessionEnd - metricsStart)) >= 5000 || metricsStart == 0) {
-            long requests = (long) Math.ceil(readed.get() * 1000.0 / diff);
-            long bytes = (long) Math.ceil(readedBytes.get() * 1000.0 / diff);
 
-            metricsStart = sessionEnd;
-            readed.set(0);
-            readedBytes.set(0);
-
-            if (onUpdate != null) {
-                onUpdate.onMetricsUpdated(requests, bytes);
-            }
+            fill(messageType);
         }
     }
 
     /**
+     * Read all device items with several requests outstanding at once
+     *
+     * @param deviceId
      * @param device
+     * @param items
      * @return
      */
-    protected boolean sendDeviceCommands(SimpleBinaryDevice device) {
-        while (!device.getCommandQueue().isEmpty()) {
-            var channel = device.getCommandQueue().peek();
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} - Device {} send command item {}", toString(),
-                        channel.getCommandAddress().getDeviceId(), channel.getCommandAddress().getAddress());
-            }
-            SimpleBinaryItemData data;
-            try {
-                data = SimpleBinaryProtocol.compileDataFrame(channel, charset);
-            } catch (Exception ex) {
-                logger.error("{} - {}", this.toString(), ex.getMessage());
-                continue;
-            }
+    private CompletableFuture<Boolean> readDeviceItemsPipelined(int deviceId, SimpleBinaryDevice device,
+            Iterator<SimpleBinaryChannel> item) {
+        final AtomicBoolean preempted = new AtomicBoolean();
 
-            if (!sendWait(device, data)) {
-                return false;
+        return sendPipelined(device, deviceId, null, lastAnswer -> {
+            if (!item.hasNext()) {
+                return null;
             }
-            device.getCommandQueue().poll();
-        }
-        return true;
+            if (device.takeCommandAdded()) {
+                // let outstanding reads finish, send commands and continue
+                preempted.set(true);
+                return null;
+            }
+            return frameCache.getReadFrame(item.next());
+        }).thenCompose(responding -> preempted.get()
+                ? sendDeviceCommands(device).thenCompose(r -> readDeviceItemsPipelined(deviceId, device, item))
+                : CompletableFuture.completedFuture(responding));
     }
 
-    protected int getDeviceID(SimpleBinaryByteBuffer inBuffer) {
-        try {
-            // flip buffer
-            inBuffer.flip();
+    /**
+     * Send commands added during poll sweep. Called between poll frames so commands do not wait for the sweep end.
+     *
+     * @param deviceList
+     * @return
+     */
+    private CompletableFuture<?> sendAddedCommands(List<Map.Entry<Integer, SimpleBinaryDevice>> deviceList) {
+        if (!commandsPending.getAndSet(false)) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-            int receivedID = inBuffer.get();
-            inBuffer.rewind();
+        return forEachSequentially(deviceList.iterator(), device -> sendAddedCommands(device.getValue()));
+    }
 
-            return receivedID;
+    /**
+     * Send commands added to device during poll sweep
+     *
+     * @param device
+     * @return
+     */
+    private CompletableFuture<?> sendAddedCommands(SimpleBinaryDevice device) {
+        return device.takeCommandAdded() ? sendDeviceCommands(device) : CompletableFuture.completedFuture(null);
+    }
 
-        } catch (ModeChangeException ex) {
-            logger.error("{} - Bad operation: {}", this.toString(), ex.getMessage());
-        } finally {
-            try {
-                inBuffer.compact();
-            } catch (ModeChangeException ex) {
-                logger.error("{} - Bad operation: {}", this.toString(), ex.getMessage());
+    /**
+     * Run asynchronous action for every element one after another. Already completed actions are passed in loop so
+     * stack does not grow with count of elements.
+     *
+     * @param elements
+     * @param action
+     * @return Future completed when action for last element is finished
+     */
+    private static <T> CompletableFuture<Void> forEachSequentially(Iterator<T> elements,
+            Function<T, CompletableFuture<?>> action) {
+        while (elements.hasNext()) {
+            CompletableFuture<?> result = action.apply(elements.next());
+
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                return result.thenCompose(r -> forEachSequentially(elements, action));
             }
         }
 
-        return -1;
+        return CompletableFuture.completedFuture(null);
     }
 
-    protected boolean checkDeviceID(SimpleBinaryByteBuffer inBuffer, int expectedID) {
-        return expectedID == getDeviceID(inBuffer);
-    }
+    /**
+     * @see org.openhab.binding.simplebinary.internal.SimpleBinaryIDevice#checkNewData()
+     */
+    @Override
+    public CompletableFuture<Void> checkNewData() {
+        if (!isConnected()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-    protected SimpleBinaryMessage verifyDataOnly(SimpleBinaryByteBuffer inBuffer) {
-        try {
-            // flip buffer
-            inBuffer.flip();
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - checkNewData() in mode {} is called", toString(), pollControl);
+        }
 
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} - Verifying data, lenght={} bytes", toString(), inBuffer.limit());
+        sessionStart = System.currentTimeMillis();
+
+        final List<Map.Entry<Integer, SimpleBinaryDevice>> deviceList = new ArrayList<>(devices.entrySet());
+        // only items with elapsed poll interval are read
+        final List<SimpleBinaryChannel> dueItems = pollControl == SimpleBinaryPollControl.ONSCAN
+                ? pollScheduler.takeDue(sessionStart, pollRate / 2)
+                : null;
+        // degraded devices get back only when they answer probe
+        return probeDegradedDevices(deviceList).thenCompose(r -> scanDevices(deviceList, dueItems))
+                .thenRun(this::cycleFinished);
+    }
+
+    /**
+     * Read data from all in-scan devices and send their commands
+     *
+     * @param deviceList
+     * @param dueItems State items to read in ONSCAN mode
+     * @return
+     */
+    private CompletableFuture<Void> scanDevices(List<Map.Entry<Integer, SimpleBinaryDevice>> deviceList,
+            @Nullable List<SimpleBinaryChannel> dueItems) {
+        CompletableFuture<Void> cycle;
+
+        if (isConcurrentPolling()) {
+            cycle = checkNewDataConcurrently(deviceList, dueItems);
+        } else if (pollControl == SimpleBinaryPollControl.ONSCAN) {
+            cycle = forEachSequentially(dueItems.iterator(), item -> {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} - checkNewData() onscan channelId={}", toString(), item.channelId);
+                }
+                if (devices.containsKey(item.getStateAddress().getDeviceId())) {
+                    if (isOffScan(item.getStateAddress().getDeviceId(),
+                            devices.get(item.getStateAddress().getDeviceId()))) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                }
+                // commands have priority over reading
+                return sendAddedCommands(deviceList).thenCompose(r -> sendReadData(item)).thenAccept(messageType -> {
+                    if (!isAnswered(messageType)) {
+                        logger.debug("{} - Item can not be read.", toString());
+                    }
+                });
+            })
+                    // send commands
+                    .thenCompose(r -> forEachSequentially(deviceList.iterator(),
+                            device -> sendDeviceCommands(device.getValue())));
+        } else if (pollControl == SimpleBinaryPollControl.ONCHANGE) {
+            // start with another device every cycle so no device is always last
+            if (!deviceList.isEmpty()) {
+                firstDeviceIndex = (firstDeviceIndex + 1) % deviceList.size();
+                Collections.rotate(deviceList, -firstDeviceIndex);
             }
+            // take every device and create for him command depend on his state
+            cycle = forEachSequentially(deviceList.iterator(), device -> {
+                // not responding for defined times -> degrade device for defined time
+                // still degrade (off-scan) -> get next
+                if (isOffScan(device.getKey(), device.getValue())) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                if (!canSend(device.getKey())) {
+                    logger.debug("{} - Device {} can not send data", toString(), device.getKey());
+                    return CompletableFuture.completedFuture(null);
+                }
+                return checkDeviceNewData(device.getKey(), device.getValue())
+                        // send commands
+                        .thenCompose(responding -> responding ? sendDeviceCommands(device.getValue())
+                                : CompletableFuture.completedFuture(false));
+            });
+        } else {
+            cycle = CompletableFuture.completedFuture(null);
+        }
+
+        return cycle;
+    }
+
+    /**
+     * Update cycle time and metrics at the end of poll cycle
+     */
+    private void cycleFinished() {
+        sessionEnd = System.currentTimeMillis();
 
-            inBuffer.rewind();
-            // decompile income message
-            SimpleBinaryMessage itemData = SimpleBinaryProtocol.decompileData(inBuffer, stateItems, true);
+        busyTime += sessionEnd - sessionStart;
 
-            // is decompiled
-            if (itemData != null) {
-                return itemData;
+        if (sessionEnd - sessionStart != lastDuration) {
+            lastDuration = sessionEnd - sessionStart;
+            if (onCycleTime != null) {
+                onCycleTime.onCycleTimeUpdated(lastDuration);
             }
-        } catch (Exception ex) {
-            logger.error("{} - Verify data error: {}", toString(), ex.getMessage());
-        } finally {
-            try {
-                inBuffer.compact();
+        }
+
+        if ((diff = (sessionEnd - metricsStart)) >= 5000 || metricsStart == 0) {
+            long requests = (long) Math.ceil(readed.get() * 1000.0 / diff);
+            long bytes = (long) Math.ceil(readedBytes.get() * 1000.0 / diff);
+            long idle = diff > 0 ? Math.max(0, 100 - busyTime * 100 / diff) : 100;
+            SimpleBinaryPollLatency.Summary latency = pollLatency.takeSummary();
+            long period = metricsStart == 0 ? 0 : diff;
 
+            metricsStart = sessionEnd;
+            readed.set(0);
+            readedBytes.set(0);
+            busyTime = 0;
+
+            if (onUpdate != null) {
+                onUpdate.onMetricsUpdated(requests, bytes, getOverrunBytes());
+            }
+            if (onPollIdle != null) {
+                onPollIdle.onPollIdleUpdated(idle);
+            }
+            if (!latency.devices.isEmpty()) {
+                if (onPollLatency != null) {
+                    onPollLatency.onPollLatencyUpdated(latency.p99, latency.max);
+                }
                 if (logger.isDebugEnabled()) {
-                    logger.debug("{} - Verify data OK, lenght={} bytes", toString(), inBuffer.position());
+                    latency.devices.forEach((id, l) -> logger.debug(
+                            "{} - Device {} time between new data checks: count={}, p50={}ms, p99={}ms, max={}ms",
+                            toString(), id, l.count, l.p50, l.p99, l.max));
                 }
-            } catch (ModeChangeException ex) {
-                logger.error("{} - Bad operation: {}", this.toString(), ex.getMessage());
             }
+            metricsPeriodFinished(period);
         }
-        return null;
     }
 
     /**
-     * Process incoming data
+     * Called at the end of metrics period
      *
-     * @param inBuffer Buffer with receiver data
-     * @param lastSentData Last data sent to device
+     * @param period Period length [ms]. Zero for first call.
+     */
+    protected void metricsPeriodFinished(long period) {
+    }
+
+    /**
+     * Check if device is off-scan (degraded) and degrade time is not over
      *
-     * @return Return device ID or error code when lower than 0
+     * @param deviceId
+     * @param device
+     * @return
      */
-    protected int processData(SimpleBinaryByteBuffer inBuffer, SimpleBinaryItemData lastSentData) {
-        return processData(inBuffer, lastSentData, null);
+    private boolean isOffScan(int deviceId, SimpleBinaryDevice device) {
+        if (device.isDegraded()) {
+            logger.debug("{} - Device {} is off-scan. Skip...", toString(), deviceId);
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Process incoming data
+     * Probe degraded devices with elapsed off-scan period. Device is back in-scan only if it answers probe.
      *
-     * @param inBuffer Buffer with receiver data
-     * @param lastSentData Last data sent to device
-     * @param forcedDeviceId Id that replace received one
+     * @param deviceList
+     * @return
+     */
+    private CompletableFuture<Void> probeDegradedDevices(List<Map.Entry<Integer, SimpleBinaryDevice>> deviceList) {
+        if (pollControl == SimpleBinaryPollControl.NONE) {
+            // devices are not polled - no probe
+            for (var device : deviceList) {
+                if (device.getValue().isDegraded() && !device.getValue().stillDegraded()) {
+                    device.getValue().resume();
+                    logger.info("{} - Device {} is back in-scan", toString(), device.getKey());
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        if (isConcurrentPolling()) {
+            final List<CompletableFuture<Boolean>> probes = new ArrayList<>();
+
+            for (var device : deviceList) {
+                if (device.getValue().isDegraded() && !device.getValue().stillDegraded()) {
+                    probes.add(probeDevice(device.getKey(), device.getValue()));
+                }
+            }
+
+            return CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[probes.size()]));
+        }
+
+        return forEachSequentially(deviceList.iterator(),
+                device -> device.getValue().isDegraded() && !device.getValue().stillDegraded()
+                        ? probeDevice(device.getKey(), device.getValue())
+                        : CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * Send single "new data" request to degraded device
      *
-     * @return Return device ID or error code when lower than 0
+     * @param deviceId
+     * @param device
+     * @return Future completed with true if device answered
      */
-    protected int processData(SimpleBinaryByteBuffer inBuffer, SimpleBinaryItemData lastSentData, Byte forcedDeviceId) {
-        int receivedID = 0;
+    private CompletableFuture<Boolean> probeDevice(int deviceId, SimpleBinaryDevice device) {
+        if (!canSend(deviceId)) {
+            return CompletableFuture.completedFuture(false);
+        }
 
-        try {
-            // flip buffer
-            inBuffer.flip();
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Device {} probe", toString(), deviceId);
+        }
 
-            if (logger.isDebugEnabled()) {
-                logger.debug("{} - Reading input buffer, lenght={} bytes. Thread={}", toString(), inBuffer.limit(),
-                        Thread.currentThread().getId());
+        return transmit(device, frameCache.getNewDataFrame(deviceId, false)).thenApply(messageType -> {
+            if (messageType == SimpleBinaryMessageType.UNKNOWN) {
+                device.degrade(degradeTime, degradeMaxTime);
+                logger.info("{} - Device {} still not responding. Off-scan for {}ms", toString(), deviceId,
+                        device.getDegradePeriod());
+                return false;
             }
 
-            if (inBuffer.limit() == 0) {
-                return ProcessDataResult.DATA_NOT_COMPLETED;
-            }
+            device.alive();
+            logger.info("{} - Device {} is back in-scan", toString(), deviceId);
+            return true;
+        });
+    }
 
-            int datasize = inBuffer.remaining();
-            receivedID = inBuffer.get();
-            inBuffer.rewind();
-            // decompile income message
-            SimpleBinaryMessage itemData = SimpleBinaryProtocol.decompileData(inBuffer, stateItems, forcedDeviceId);
+    /**
+     * Ask device for new data until device has no more or frame budget is spent. Rest of data is read in next cycle.
+     *
+     * @param deviceId
+     * @param device
+     * @return Future completed with false if device is not responding
+     */
+    private CompletableFuture<Boolean> checkDeviceNewData(int deviceId, SimpleBinaryDevice device) {
+        final long gap = device.newDataChecked();
+        if (gap > 0) {
+            pollLatency.add(deviceId, gap);
+        }
 
-            // is decompiled
-            if (itemData != null) {
-                // process data
-                SimpleBinaryMessageType mt = processDecompiledData(itemData, lastSentData);
-                devices.get(receivedID).receivedMessage.set(mt);
+        // not responding -> force
+        DeviceStates state = device.getState().getState();
+        boolean forceAllValues = state == DeviceStates.UNKNOWN || state == DeviceStates.NOT_RESPONDING
+                || state == DeviceStates.RESPONSE_ERROR;
 
-                readed.incrementAndGet();
-                readedBytes.addAndGet(datasize - inBuffer.remaining());
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Device {} force={}", toString(), deviceId, forceAllValues);
+        }
+        // send "new data"
+        SimpleBinaryItemData data = frameCache.getNewDataFrame(deviceId, forceAllValues);
+
+        if (getRequestWindow(deviceId) > 1) {
+            // first request could mark all data as new - so wait for its answer
+            return sendRequest(device, data).thenCompose(messageType -> {
+                if (messageType != SimpleBinaryMessageType.DATA) {
+                    return CompletableFuture.completedFuture(messageType != SimpleBinaryMessageType.UNKNOWN);
+                }
+                // keep window full while device answers with data
+                final SimpleBinaryItemData next = frameCache.getNewDataFrame(deviceId, false);
+                final AtomicInteger frames = new AtomicInteger(1);
 
-                // compact buffer
-                inBuffer.compact();
+                return sendPipelined(device, deviceId, messageType, lastAnswer -> {
+                    if (lastAnswer != SimpleBinaryMessageType.DATA || budgetSpent(deviceId, frames.get())) {
+                        return null;
+                    }
+                    frames.incrementAndGet();
+                    return next;
+                });
+            });
+        }
 
-                return receivedID;
-            } else {
-                logger.debug("{} - Not whole packet. Waiting...", toString());
-                // rewind at start position (wait for next bytes)
-                inBuffer.rewind();
-                // compact buffer
-                inBuffer.compact();
+        return requestNewData(deviceId, device, data, 1);
+    }
 
-                return ProcessDataResult.DATA_NOT_COMPLETED;
+    /**
+     * Check if device used all new data requests allowed in one cycle
+     *
+     * @param deviceId
+     * @param frames Count of requests already sent in this cycle
+     * @return
+     */
+    private boolean budgetSpent(int deviceId, int frames) {
+        if (maxNewDataFrames == 0 || frames < maxNewDataFrames) {
+            return false;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Device {} used {} new data requests. Continue in next cycle", toString(), deviceId,
+                    frames);
+        }
+        return true;
+    }
+
+    /**
+     * Send "new data" request and repeat it while device answers with data
+     *
+     * @param deviceId
+     * @param device
+     * @param data
+     * @param frames Count of requests sent in this cycle including this one
+     * @return Future completed with false if device is not responding
+     */
+    private CompletableFuture<Boolean> requestNewData(int deviceId, SimpleBinaryDevice device,
+            SimpleBinaryItemData data, int frames) {
+        return sendRequest(device, data).thenCompose(messageType -> {
+            if (messageType == SimpleBinaryMessageType.DATA && !budgetSpent(deviceId, frames)) {
+                // if data income on request "check new data" send it again for new check
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} - Device {} Repeat CHECKNEWDATA command", toString(), deviceId);
+                }
+                // send new request immediately and without "force all data as new"
+                return requestNewData(deviceId, device, frameCache.getNewDataFrame(deviceId, false), frames + 1);
             }
-        } catch (BufferUnderflowException ex) {
-            logger.warn("{} - Buffer underflow while reading", toString());
-            // print details
-            printCommunicationInfo(inBuffer, lastSentData);
 
-            StringWriter sw = new StringWriter();
-            PrintWriter pw = new PrintWriter(sw);
-            ex.printStackTrace(pw);
-            logger.warn("Underflow stacktrace: {}", sw.toString());
+            return CompletableFuture.completedFuture(messageType != SimpleBinaryMessageType.UNKNOWN);
+        });
+    }
+
+    /**
+     * Poll all devices at once. Requests and commands of one device are chained so they keep their order and cycle
+     * takes as long as the slowest device. No thread is blocked while waiting for answers.
+     *
+     * @param deviceList
+     * @param dueItems State items to read in ONSCAN mode
+     * @return
+     */
+    private CompletableFuture<Void> checkNewDataConcurrently(List<Map.Entry<Integer, SimpleBinaryDevice>> deviceList,
+            @Nullable List<SimpleBinaryChannel> dueItems) {
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>(deviceList.size());
+        final HashMap<Integer, List<SimpleBinaryChannel>> dueItemsByDevice = new HashMap<>();
+
+        if (dueItems != null) {
+            for (SimpleBinaryChannel item : dueItems) {
+                dueItemsByDevice.computeIfAbsent(item.getStateAddress().getDeviceId(), k -> new ArrayList<>())
+                        .add(item);
+            }
+        }
 
-            logger.warn("Buffer mode {}, remaining={} bytes, limit={} bytes", inBuffer.getMode().toString(),
-                    inBuffer.remaining(), inBuffer.limit());
+        for (var device : deviceList) {
+            final int deviceId = device.getKey();
 
-            try {
-                // rewind buffer
-                inBuffer.rewind();
-                logger.warn("Buffer mode {}, remaining after rewind {} bytes", inBuffer.getMode().toString(),
-                        inBuffer.remaining());
-                // compact buffer
-                inBuffer.compact();
-            } catch (ModeChangeException exep) {
-                logger.error(exep.getMessage());
+            if (!canSend(deviceId)) {
+                logger.debug("{} - Device {} can not send data", toString(), deviceId);
+                continue;
             }
 
-            return ProcessDataResult.PROCESSING_ERROR;
+            tasks.add(pollDevice(deviceId, device.getValue(), dueItemsByDevice.get(deviceId)).exceptionally(ex -> {
+                logger.error("{} - Device poll failure.", toString(), ex);
+                return null;
+            }));
+        }
 
-        } catch (NoValidCRCException ex) {
-            logger.error("{} - {}", this.toString(), ex.getMessage());
-            // print details
-            printCommunicationInfo(inBuffer, lastSentData);
-            // compact buffer
-            try {
-                inBuffer.compact();
-            } catch (ModeChangeException e) {
-                logger.error(e.getMessage());
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()]));
+    }
+
+    /**
+     * Poll one device depending on poll control and send its commands
+     *
+     * @param deviceId
+     * @param device
+     * @param items Device state items to read in ONSCAN mode
+     * @return
+     */
+    private CompletableFuture<Void> pollDevice(int deviceId, SimpleBinaryDevice device,
+            @Nullable List<SimpleBinaryChannel> items) {
+        if (isOffScan(deviceId, device)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Boolean> poll;
+
+        if (pollControl == SimpleBinaryPollControl.ONSCAN) {
+            if (items != null && getRequestWindow(deviceId) > 1) {
+                // commands are sent even if device is not responding
+                poll = readDeviceItemsPipelined(deviceId, device, items.iterator()).thenApply(r -> true);
+            } else if (items != null) {
+                poll = forEachSequentially(items.iterator(), item -> sendAddedCommands(device)
+                        // commands have priority over reading
+                        .thenCompose(r -> sendReadData(item)).thenAccept(messageType -> {
+                            if (!isAnswered(messageType)) {
+                                logger.debug("{} - Item can not be read.", toString());
+                            }
+                        })).thenApply(r -> true);
+            } else {
+                poll = CompletableFuture.completedFuture(true);
             }
+        } else if (pollControl == SimpleBinaryPollControl.ONCHANGE) {
+            poll = checkDeviceNewData(deviceId, device);
+        } else {
+            poll = CompletableFuture.completedFuture(true);
+        }
 
-            // set state
-            setDeviceState(receivedID, DeviceStates.RESPONSE_ERROR);
-            //
-            devices.get(receivedID).receivedMessage.set(SimpleBinaryMessageType.RESEND);
+        return poll.thenCompose(responding -> responding ? sendDeviceCommands(device)
+                : CompletableFuture.completedFuture(false)).thenApply(r -> null);
+    }
 
-            return ProcessDataResult.INVALID_CRC;
+    /**
+     * Send queued commands one after another
+     *
+     * @param device
+     * @return Future completed with false if some command was not delivered
+     */
+    protected CompletableFuture<Boolean> sendDeviceCommands(SimpleBinaryDevice device) {
+        SimpleBinaryChannel channel;
 
-        } catch (NoValidItemInConfig ex) {
-            logger.info("{} - {}", this.toString(), ex.getMessage());
-            // print details
-            printCommunicationInfo(inBuffer, lastSentData);
-            // compact buffer
+        while ((channel = device.getCommandQueue().peek()) != null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} - Device {} send command item {}", toString(),
+                        channel.getCommandAddress().getDeviceId(), channel.getCommandAddress().getAddress());
+            }
+            SimpleBinaryItemData data;
             try {
-                inBuffer.compact();
-            } catch (ModeChangeException e) {
-                logger.error(e.getMessage());
+                data = SimpleBinaryProtocol.compileDataFrame(channel, charset);
+            } catch (Exception ex) {
+                logger.error("{} - {}", this.toString(), ex.getMessage());
+                // command can not be sent ever
+                device.getCommandQueue().poll();
+                continue;
             }
-            // inform about data received
-            devices.get(receivedID).receivedMessage.set(SimpleBinaryMessageType.DATA);
 
-            return ProcessDataResult.BAD_CONFIG;
+            final CompletableFuture<SimpleBinaryMessageType> sent = sendRequest(device, data);
 
-        } catch (UnknownMessageException ex) {
-            logger.error("{} - Income unknown message: {}", this.toString(), ex.getMessage());
-            // print details
-            printCommunicationInfo(inBuffer, lastSentData);
+            if (!sent.isDone() || sent.isCompletedExceptionally()) {
+                return sent.thenCompose(messageType -> commandAnswered(device, messageType));
+            }
+            if (!isAnswered(sent.join())) {
+                return CompletableFuture.completedFuture(false);
+            }
+            device.getCommandQueue().poll();
+        }
 
-            // only 4 bytes (minus 1 after delete first byte) is not enough to have complete message
-            if (inBuffer.limit() < 5) {
-                // clear buffer
-                inBuffer.clear();
+        return CompletableFuture.completedFuture(true);
+    }
 
-                logger.warn("{} - Income unknown message: input buffer cleared", this.toString());
+    /**
+     * Remove answered command from queue and send next one
+     *
+     * @param device
+     * @param messageType Answer of sent command
+     * @return Future completed with false if some command was not delivered
+     */
+    private CompletableFuture<Boolean> commandAnswered(SimpleBinaryDevice device,
+            SimpleBinaryMessageType messageType) {
+        if (!isAnswered(messageType)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        device.getCommandQueue().poll();
 
-                // set state
-                setDeviceState(receivedID, DeviceStates.DATA_ERROR_UNKNOWN_MSG);
+        return sendDeviceCommands(device);
+    }
 
-                return ProcessDataResult.UNKNOWN_MESSAGE;
-            } else {
-                logger.warn("{} - Income unknown message : {} bytes in buffer. Triyng to find correct message. ",
-                        this.toString(), inBuffer.limit());
-                try {
-                    // delete first byte
-                    inBuffer.rewind();
-                    inBuffer.get();
-                    inBuffer.compact();
-                } catch (ModeChangeException e) {
-                    logger.error(e.getMessage());
-                }
+    protected int getDeviceID(SimpleBinaryRingBuffer inBuffer) {
+        if (inBuffer.isEmpty()) {
+            return -1;
+        }
+
+        return inBuffer.peek(0);
+    }
+
+    protected boolean checkDeviceID(SimpleBinaryRingBuffer inBuffer, int expectedID) {
+        return expectedID == getDeviceID(inBuffer);
+    }
+
+    /**
+     * Decode message at buffer start without consuming it
+     *
+     * @param inBuffer
+     * @return Decoded message or null if there is no valid message
+     */
+    protected SimpleBinaryMessage verifyDataOnly(SimpleBinaryRingBuffer inBuffer) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Verifying data, lenght={} bytes", toString(), inBuffer.size());
+        }
+
+        SimpleBinaryFrame frame = inBuffer.getFrame();
+        int result = SimpleBinaryProtocol.decodeFrame(inBuffer, frame);
+
+        if (result != SimpleBinaryProtocol.DecodeResult.OK) {
+            logger.error("{} - Verify data error: decode result {}", toString(), result);
+            return null;
+        }
+
+        if (frame.hasValue() && stateItemsIndex.get(frame.getDeviceId(), frame.getAddress()) == null) {
+            logger.error("{} - Verify data error: item not found in configuration (deviceId={}, address={})",
+                    toString(), frame.getDeviceId(), frame.getAddress());
+            return null;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Verify data OK, lenght={} bytes", toString(), inBuffer.size());
+        }
+
+        return new SimpleBinaryMessage(frame.getMessageId(), frame.getDeviceId(), frame.getAddress());
+    }
+
+    /**
+     * Process incoming data
+     *
+     * @param inBuffer Buffer with receiver data
+     * @param lastSentData Last data sent to device
+     *
+     * @return Return device ID or error code when lower than 0
+     */
+    protected int processData(SimpleBinaryRingBuffer inBuffer, SimpleBinaryItemData lastSentData) {
+        return processData(inBuffer, lastSentData, null);
+    }
+
+    /**
+     * Process incoming data
+     *
+     * @param inBuffer Buffer with receiver data
+     * @param lastSentData Last data sent to device
+     * @param forcedDeviceId Id that replace received one
+     *
+     * @return Return device ID or error code when lower than 0
+     */
+    protected int processData(SimpleBinaryRingBuffer inBuffer, SimpleBinaryItemData lastSentData, Byte forcedDeviceId) {
+        int receivedID = 0;
+
+        inBuffer.setMessageType(SimpleBinaryMessageType.UNKNOWN);
 
-                return ProcessDataResult.UNKNOWN_MESSAGE_REWIND;
+        try {
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} - Reading input buffer, lenght={} bytes. Thread={}", toString(), inBuffer.size(),
+                        Thread.currentThread().getId());
             }
 
-        } catch (ModeChangeException ex) {
-            logger.error("{} - Bad operation: {}. Thread={}", this.toString(), ex.getMessage(),
-                    Thread.currentThread().getId());
+            if (inBuffer.isEmpty()) {
+                return ProcessDataResult.DATA_NOT_COMPLETED;
+            }
 
-            inBuffer.initialize();
+            receivedID = inBuffer.peek(0);
+
+            SimpleBinaryFrame frame = inBuffer.getFrame();
+            // decode income message in place
+            switch (SimpleBinaryProtocol.decodeFrame(inBuffer, frame)) {
+                case SimpleBinaryProtocol.DecodeResult.OK:
+                    break;
+                case SimpleBinaryProtocol.DecodeResult.INCOMPLETE:
+                    // wait for next bytes
+                    logger.debug("{} - Not whole packet. Waiting...", toString());
+
+                    return ProcessDataResult.DATA_NOT_COMPLETED;
+                case SimpleBinaryProtocol.DecodeResult.INVALID_CRC:
+                    logger.error("{} - CRC not valid. Receive/expected 0x{}/0x{}", this.toString(),
+                            Integer.toHexString(frame.getCrc() & 0xFF), Integer.toHexString(frame.evalCrc() & 0xFF));
+                    // print details
+                    printCommunicationInfo(inBuffer, lastSentData);
+                    // remove message
+                    inBuffer.consume(frame.getLength());
+                    // set state
+                    setDeviceState(receivedID, DeviceStates.RESPONSE_ERROR);
+                    //
+                    inBuffer.setMessageType(SimpleBinaryMessageType.RESEND);
+
+                    return ProcessDataResult.INVALID_CRC;
+                default:
+                    return processUnknownMessage(inBuffer, lastSentData, receivedID, frame);
+            }
 
-            // set state
-            setDeviceState(receivedID, DeviceStates.DATA_ERROR);
+            int deviceId = (forcedDeviceId != null) ? (forcedDeviceId & 0xFF) : frame.getDeviceId();
+            SimpleBinaryChannel channel = null;
 
-            return ProcessDataResult.PROCESSING_ERROR;
+            if (frame.hasValue()) {
+                channel = stateItemsIndex.get(deviceId, frame.getAddress());
+
+                if (channel == null) {
+                    logger.info("{} - Item not found in configuration (deviceId={}, address={})", this.toString(),
+                            deviceId, frame.getAddress());
+                    // print details
+                    printCommunicationInfo(inBuffer, lastSentData);
+                    // remove message
+                    inBuffer.consume(frame.getLength());
+                    // inform about data received
+                    inBuffer.setMessageType(SimpleBinaryMessageType.DATA);
+
+                    return ProcessDataResult.BAD_CONFIG;
+                }
+            }
+
+            // process data
+            SimpleBinaryMessageType mt = processDecompiledData(deviceId, frame, channel, lastSentData);
+            inBuffer.setMessageType(mt);
 
+            readed.incrementAndGet();
+            readedBytes.addAndGet(frame.getLength());
+
+            // remove message
+            inBuffer.consume(frame.getLength());
+
+            return receivedID;
         } catch (Exception ex) {
             logger.error(String.format("%s - Reading incoming data error: ", this.toString()), ex);
             // print details
@@ -785,92 +1495,166 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
     }
 
     /**
+     * Handle message with unknown ID at buffer start. Data are scanned for next valid frame and garbage before it is
+     * discarded at once.
      *
-     * @param itemData
+     * @param inBuffer
+     * @param lastSentData
+     * @param receivedID
+     * @param frame
+     * @return
+     */
+    private int processUnknownMessage(SimpleBinaryRingBuffer inBuffer, SimpleBinaryItemData lastSentData,
+            int receivedID, SimpleBinaryFrame frame) {
+        logger.error("{} - Income unknown message: Unknown message ID: 0x{}", this.toString(),
+                Integer.toHexString(frame.getMessageId() & 0xFF));
+        // print details
+        printCommunicationInfo(inBuffer, lastSentData);
+
+        int start = inBuffer.getReadIndex();
+        int limit = start + inBuffer.size();
+        // answer is expected from device request was sent to
+        int next = SimpleBinaryProtocol.findFrameStart(frame, inBuffer.getView(), inBuffer.getMask(), start + 1,
+                limit, getMaxFrameLength(inBuffer), lastSentData != null ? lastSentData.getDeviceId() : -1);
+
+        discardedBytes.addAndGet(next - start);
+
+        if (next >= limit) {
+            // clear buffer
+            inBuffer.clear();
+
+            logger.warn("{} - Income unknown message: input buffer cleared ({} bytes)", this.toString(), limit - start);
+
+            // set state
+            setDeviceState(receivedID, DeviceStates.DATA_ERROR_UNKNOWN_MSG);
+
+            return ProcessDataResult.UNKNOWN_MESSAGE;
+        } else {
+            logger.warn("{} - Income unknown message : {} bytes discarded. Next message found at offset {}.",
+                    this.toString(), next - start, next - start);
+            // delete garbage
+            inBuffer.consume(next - start);
+
+            return ProcessDataResult.UNKNOWN_MESSAGE_REWIND;
+        }
+    }
+
+    /**
+     * Return maximum length of frame that can be received into given buffer
+     *
+     * @param inBuffer
+     * @return
+     */
+    protected int getMaxFrameLength(SimpleBinaryRingBuffer inBuffer) {
+        return inBuffer.capacity();
+    }
+
+    /**
+     * Return count of bytes discarded while looking for valid message
+     *
+     * @return
+     */
+    public long getDiscardedBytes() {
+        return discardedBytes.get();
+    }
+
+    /**
+     * Return count of bytes dropped because receive buffer was full
+     *
+     * @return
+     */
+    public long getOverrunBytes() {
+        return overrunBytes.get();
+    }
+
+    /**
+     * Process received frame. Frame is valid only until input buffer is compacted.
+     *
+     * @param deviceId Device ID
+     * @param frame Received frame
+     * @param channel Channel for data frame, null for control message
      * @param lastSentData
      * @return
      * @throws Exception
      */
-    protected SimpleBinaryMessageType processDecompiledData(SimpleBinaryMessage itemData,
-            SimpleBinaryItemData lastSentData) throws Exception {
-        int deviceId = itemData.getDeviceId();
+    protected SimpleBinaryMessageType processDecompiledData(int deviceId, SimpleBinaryFrame frame,
+            SimpleBinaryChannel channel, SimpleBinaryItemData lastSentData) throws Exception {
+        SimpleBinaryMessageType messageType = frame.getMessageType();
         // send all commands if device asked for that
-        if (itemData.getMessageType() == SimpleBinaryMessageType.WANT_EVERYTHING) {
+        if (messageType == SimpleBinaryMessageType.WANT_EVERYTHING) {
             sendAllItemsCommands();
             // send all commands if device get online
         } else if (syncCommand) {
             // get device state
             var devstate = devices.getDeviceState(deviceId);
             if (devstate != null && (devstate == DeviceStates.UNKNOWN || devstate == DeviceStates.NOT_RESPONDING
-                    || itemData.getMessageType() == SimpleBinaryMessageType.HI)) {
+                    || messageType == SimpleBinaryMessageType.HI)) {
                 sendAllItemsCommands();
             }
         }
         // set state
         setDeviceState(deviceId, DeviceStates.CONNECTED);
         // message type control
-        if (itemData instanceof SimpleBinaryItem) {
+        if (channel != null) {
             /*
              * if (logger.isTraceEnabled()) {
              * logger.trace("{} - Incoming data", toString());
              * }
              */
 
-            try {
-                State state = ((SimpleBinaryItem) itemData).getState();
-
-                if (state == null) {
-                    logger.warn("{} - Device {} Incoming data - Unknown item state", toString(), deviceId);
-                } else {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("{} - Device {} Incoming data - channel:{}/state:{}", toString(), deviceId,
-                                ((SimpleBinaryItem) itemData).getConfig().channelId, state);
-                    }
+            SimpleBinaryStateDecoder decoder = channel.getStateDecoder();
+            State state = (decoder != null) ? decoder.decode(frame) : null;
 
-                    ((SimpleBinaryItem) itemData).getConfig().setState(state);
+            if (state == null) {
+                logger.warn("{} - Device {} Incoming data - Unknown item state. {}", toString(), deviceId,
+                        (decoder != null) ? decoder.getError(frame.getValueLength()) : "");
+            } else {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} - Device {} Incoming data - channel:{}/state:{}", toString(), deviceId,
+                            channel.channelId, state);
                 }
-            } catch (Exception ex) {
-                logger.error("{} - {}", this.toString(), ex.toString());
+
+                channel.setState(state);
             }
-        } else if (itemData instanceof SimpleBinaryMessage) {
+        } else {
             if (logger.isDebugEnabled()) {
-                logger.debug("{} - Device {} Incoming control message", toString(), itemData.getDeviceId());
+                logger.debug("{} - Device {} Incoming control message", toString(), deviceId);
             }
 
             if (logger.isDebugEnabled() && lastSentData != null && lastSentData.getItemAddress() >= 0) {
-                logger.debug("{} - Device {} ItemAddress={}", toString(), itemData.getDeviceId(),
+                logger.debug("{} - Device {} ItemAddress={}", toString(), deviceId,
                         lastSentData.getItemAddress());
             }
 
-            if (itemData.getMessageType() == SimpleBinaryMessageType.OK) {
+            if (messageType == SimpleBinaryMessageType.OK) {
                 if (logger.isDebugEnabled()) {
-                    logger.debug("{} - Device {} for item {} report data OK", toString(), itemData.getDeviceId(),
+                    logger.debug("{} - Device {} for item {} report data OK", toString(), deviceId,
                             (lastSentData != null && lastSentData.getItemAddress() >= 0) ? lastSentData.getItemAddress()
                                     : "???");
                 }
-            } else if (itemData.getMessageType() == SimpleBinaryMessageType.RESEND) {
+            } else if (messageType == SimpleBinaryMessageType.RESEND) {
                 if (lastSentData != null) {
-                    logger.info("{} - Device {} for item {} request resend data", toString(), itemData.getDeviceId(),
+                    logger.info("{} - Device {} for item {} request resend data", toString(), deviceId,
                             lastSentData.getItemAddress());
                 } else {
                     logger.warn("{} - Device {} request resend data. But nothing to resend.", toString(),
-                            itemData.getDeviceId());
+                            deviceId);
                 }
-            } else if (itemData.getMessageType() == SimpleBinaryMessageType.NODATA) {
+            } else if (messageType == SimpleBinaryMessageType.NODATA) {
                 if (logger.isDebugEnabled()) {
-                    logger.debug("{} - Device {} answer no new data", toString(), itemData.getDeviceId());
+                    logger.debug("{} - Device {} answer no new data", toString(), deviceId);
                 }
-            } else if (itemData.getMessageType() == SimpleBinaryMessageType.UNKNOWN_DATA) {
-                logger.warn("{} - Device {} report unknown data", toString(), itemData.getDeviceId());
+            } else if (messageType == SimpleBinaryMessageType.UNKNOWN_DATA) {
+                logger.warn("{} - Device {} report unknown data", toString(), deviceId);
                 // last data out
                 if (lastSentData != null) {
                     logger.info("{} - Last sent data: {}", toString(),
                             SimpleBinaryProtocol.arrayToString(lastSentData.getData(), lastSentData.getData().length));
                 }
                 // set state
-                setDeviceState(itemData.getDeviceId(), DeviceStates.DATA_ERROR_UNKNOWN_DATA);
-            } else if (itemData.getMessageType() == SimpleBinaryMessageType.UNKNOWN_ADDRESS) {
-                logger.warn("{} - Device {} for item {} report unknown address", toString(), itemData.getDeviceId(),
+                setDeviceState(deviceId, DeviceStates.DATA_ERROR_UNKNOWN_DATA);
+            } else if (messageType == SimpleBinaryMessageType.UNKNOWN_ADDRESS) {
+                logger.warn("{} - Device {} for item {} report unknown address", toString(), deviceId,
                         (lastSentData != null && lastSentData.getItemAddress() >= 0) ? lastSentData.getItemAddress()
                                 : "???");
                 // last data out
@@ -879,9 +1663,9 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
                             SimpleBinaryProtocol.arrayToString(lastSentData.getData(), lastSentData.getData().length));
                 }
                 // set state
-                setDeviceState(itemData.getDeviceId(), DeviceStates.DATA_ERROR_UNKNOWN_ADDRESS);
-            } else if (itemData.getMessageType() == SimpleBinaryMessageType.SAVING_ERROR) {
-                logger.warn("{} - Device {} for item {} report saving data error", toString(), itemData.getDeviceId(),
+                setDeviceState(deviceId, DeviceStates.DATA_ERROR_UNKNOWN_ADDRESS);
+            } else if (messageType == SimpleBinaryMessageType.SAVING_ERROR) {
+                logger.warn("{} - Device {} for item {} report saving data error", toString(), deviceId,
                         (lastSentData != null && lastSentData.getItemAddress() >= 0) ? lastSentData.getItemAddress()
                                 : "???");
                 // last data out
@@ -890,21 +1674,21 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
                             SimpleBinaryProtocol.arrayToString(lastSentData.getData(), lastSentData.getData().length));
                 }
                 // set state
-                setDeviceState(itemData.getDeviceId(), DeviceStates.DATA_ERROR_SAVE);
-            } else if (itemData.getMessageType() == SimpleBinaryMessageType.HI) {
+                setDeviceState(deviceId, DeviceStates.DATA_ERROR_SAVE);
+            } else if (messageType == SimpleBinaryMessageType.HI) {
                 if (logger.isDebugEnabled()) {
-                    logger.debug("{} - Device {} says Hi", toString(), itemData.getDeviceId());
+                    logger.debug("{} - Device {} says Hi", toString(), deviceId);
                 }
             } else {
                 logger.warn("{} - Device {} - Unsupported message type received: {}", toString(),
-                        itemData.getDeviceId(), itemData.getMessageType().toString());
+                        deviceId, messageType.toString());
 
                 // set state
-                setDeviceState(itemData.getDeviceId(), DeviceStates.DATA_ERROR_UNSUPPORTED_MSG);
+                setDeviceState(deviceId, DeviceStates.DATA_ERROR_UNSUPPORTED_MSG);
             }
         }
 
-        return itemData.getMessageType();
+        return messageType;
     }
 
     /**
@@ -959,6 +1743,27 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
         onCycleTime = onCycleTimeMethod;
     }
 
+    private PollIdleUpdated onPollIdle = null;
+
+    @Override
+    public void onPollIdleUpdated(PollIdleUpdated onPollIdleMethod) {
+        onPollIdle = onPollIdleMethod;
+    }
+
+    private PollLatencyUpdated onPollLatency = null;
+
+    @Override
+    public void onPollLatencyUpdated(PollLatencyUpdated onPollLatencyMethod) {
+        onPollLatency = onPollLatencyMethod;
+    }
+
+    protected BusUsageUpdated onBusUsage = null;
+
+    @Override
+    public void onBusUsageUpdated(BusUsageUpdated onBusUsageMethod) {
+        onBusUsage = onBusUsageMethod;
+    }
+
     private DeviceStateUpdated onDeviceState = null;
 
     @Override
@@ -992,6 +1797,9 @@ public class SimpleBinaryGenericDevice implements SimpleBinaryIDevice {
         this.devices = devices;
         this.stateItems = stateItems;
         this.commandItems = commandItems;
+        this.stateItemsIndex = new SimpleBinaryChannelIndex(stateItems);
+        this.pollScheduler = new SimpleBinaryPollScheduler(stateItems);
+        this.frameCache = new SimpleBinaryFrameCache(stateItems, devices);
     }
 
     public interface SimpleBinaryICommandAdded {
@@ -9,6 +9,7 @@
 package org.openhab.binding.simplebinary.internal.core;
 
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNull;
 import org.openhab.core.types.Command;
@@ -26,13 +27,25 @@ public interface SimpleBinaryIDevice {
     }
 
     public interface MetricsUpdated {
-        public void onMetricsUpdated(long requests, long bytes);
+        public void onMetricsUpdated(long requests, long bytes, long overrunBytes);
     }
 
     public interface CycleTimeUpdated {
         public void onCycleTimeUpdated(long duration);
     }
 
+    public interface PollIdleUpdated {
+        public void onPollIdleUpdated(long idle);
+    }
+
+    public interface PollLatencyUpdated {
+        public void onPollLatencyUpdated(long p99, long max);
+    }
+
+    public interface BusUsageUpdated {
+        public void onBusUsageUpdated(long utilization, double idleGap, long timeoutLoss);
+    }
+
     public interface DeviceStateUpdated {
         public void onDeviceStateUpdated(int deviceId, SimpleBinaryDeviceState state);
     }
@@ -69,8 +82,9 @@ public interface SimpleBinaryIDevice {
     /**
      * Check new data for all connected devices
      *
+     * @return Future completed when all devices are checked
      */
-    public void checkNewData();
+    public CompletableFuture<Void> checkNewData();
 
     /**
      * Set read write areas
@@ -101,6 +115,21 @@ public interface SimpleBinaryIDevice {
      */
     public void onCycleTimeUpdated(CycleTimeUpdated onCycleTimeMethod);
 
+    /**
+     * Set method provided on update poll idle time
+     */
+    public void onPollIdleUpdated(PollIdleUpdated onPollIdleMethod);
+
+    /**
+     * Set method provided on update time between new data checks of devices
+     */
+    public void onPollLatencyUpdated(PollLatencyUpdated onPollLatencyMethod);
+
+    /**
+     * Set method provided on update bus usage
+     */
+    public void onBusUsageUpdated(BusUsageUpdated onBusUsageMethod);
+
     /**
      * Set method provided on update single device state
      */
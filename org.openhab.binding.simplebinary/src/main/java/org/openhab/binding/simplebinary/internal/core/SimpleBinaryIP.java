@@ -15,7 +15,6 @@ import java.net.InetSocketAddress;
 import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.channels.AsynchronousCloseException;
 import java.nio.channels.AsynchronousServerSocketChannel;
 import java.nio.channels.AsynchronousSocketChannel;
@@ -23,6 +22,8 @@ import java.nio.channels.CompletionHandler;
 import java.nio.charset.Charset;
 import java.time.ZonedDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.openhab.binding.simplebinary.internal.core.SimpleBinaryDeviceState.DeviceStates;
 import org.openhab.binding.simplebinary.internal.core.SimpleBinaryPortState.PortStates;
@@ -48,27 +49,56 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
     private AsynchronousServerSocketChannel listener;
     /** connected clients collection */
     private final SimpleBinaryIPChannelInfoCollection channels;
+    /** clients receive buffers */
+    private final SimpleBinaryBufferPool bufferPool;
+    /** maximum count of frames in connection send queue */
+    private final int sendQueueSize;
+    /** behaviour of full send queue */
+    private final SimpleBinarySendQueueOverflow sendQueueOverflow;
+    /** poll connected devices concurrently */
+    private final boolean concurrentPolling;
+    /** maximum count of outstanding requests per device (1 - sequence numbers are not negotiated) */
+    private final int requestWindow;
 
     /**
      * Constructor
      *
      * @param ip
      * @param port
+     * @param pollControl
+     * @param pollRate
+     * @param concurrentPolling
      * @param charset
      * @param timeout
+     * @param minTimeout
      * @param degradeMaxFailuresCount
      * @param degradeTime
+     * @param degradeMaxTime
      * @param discardCommand
      * @param syncCommand
+     * @param maxFrameSize
+     * @param sendQueueSize
+     * @param sendQueueOverflow
+     * @param requestWindow
+     * @param maxNewDataFrames
      */
-    public SimpleBinaryIP(String ip, int port, Charset charset, int timeout, int degradeMaxFailuresCount,
-            int degradeTime, boolean discardCommand, boolean syncCommand) {
-        super("TCPserver", SimpleBinaryPollControl.NONE, 1000, charset, timeout, degradeMaxFailuresCount, degradeTime,
-                discardCommand, syncCommand);
+    public SimpleBinaryIP(String ip, int port, SimpleBinaryPollControl pollControl, int pollRate,
+            boolean concurrentPolling, Charset charset, int timeout, int minTimeout, int degradeMaxFailuresCount,
+            int degradeTime, int degradeMaxTime, boolean discardCommand, boolean syncCommand, int maxFrameSize,
+            int sendQueueSize, SimpleBinarySendQueueOverflow sendQueueOverflow, int requestWindow,
+            int maxNewDataFrames) {
+        super("TCPserver", pollControl, pollRate, charset, timeout, minTimeout, degradeMaxFailuresCount, degradeTime,
+                degradeMaxTime, discardCommand, syncCommand, maxNewDataFrames);
 
         this.bindAddress = ip;
         this.port = port;
+        this.sendQueueSize = Math.max(1, sendQueueSize);
+        this.sendQueueOverflow = sendQueueOverflow;
+        this.concurrentPolling = concurrentPolling;
+        // whole window must fit into send queue
+        this.requestWindow = Math.min(requestWindow, this.sendQueueSize);
         this.channels = new SimpleBinaryIPChannelInfoCollection(this);
+        this.bufferPool = new SimpleBinaryBufferPool(maxFrameSize);
     }
 
     /**
@@ -89,6 +119,52 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
         return port;
     }
 
+    /**
+     * Return clients receive buffers pool
+     *
+     * @return
+     */
+    public SimpleBinaryBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    @Override
+    protected boolean isConcurrentPolling() {
+        return concurrentPolling;
+    }
+
+    @Override
+    protected boolean isWaitingForAnswer(int devId) {
+        SimpleBinaryIPChannelInfo chInfo = channels.getById(devId);
+
+        return chInfo != null && chInfo.waitingForAnswer.get();
+    }
+
+    @Override
+    protected int getRequestBackstop(SimpleBinaryDevice device, SimpleBinaryItemData data) {
+        // channel answer timeout is configured timeout - request must not expire before it
+        return timeout + REQUEST_TIMEOUT_RESERVE;
+    }
+
+    @Override
+    protected int getRequestWindow(int devId) {
+        SimpleBinaryIPChannelInfo chInfo = channels.getById(devId);
+
+        return chInfo != null ? chInfo.getRequestWindow() : 1;
+    }
+
+    @Override
+    protected boolean isWindowFull(int devId) {
+        SimpleBinaryIPChannelInfo chInfo = channels.getById(devId);
+
+        return chInfo != null && chInfo.isWindowFull();
+    }
+
+    @Override
+    protected int getMaxFrameLength(SimpleBinaryRingBuffer inBuffer) {
+        return bufferPool.getMaxCapacity();
+    }
+
     /*
      * @Override
      * public void setBindingData(EventPublisher eventPublisher, Map<String, SimpleBinaryBindingConfig> itemsConfig,
@@ -143,8 +219,9 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                 SimpleBinaryIPChannelInfoCollection a) {
                             // get ready for next connection
                             listener.accept(a, this);
-                            // allocate receive buffer
-                            final ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+                            // get receive buffer from pool
+                            final SimpleBinaryRingBuffer buffer = bufferPool
+                                    .acquire(SimpleBinaryBufferPool.MIN_CAPACITY);
                             // insert client into list
                             SimpleBinaryIPChannelInfo chInfo = a.addChannel(channel, buffer,
                                     new SimpleBinaryIRequestTimeouted() {
@@ -165,7 +242,11 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                     Thread.currentThread().getId());
 
                             // callback read
-                            channel.read(buffer, chInfo, new CompletionHandler<Integer, SimpleBinaryIPChannelInfo>() {
+                            final ByteBuffer readView = buffer.getWriteView();
+                            channel.read(readView, chInfo, new CompletionHandler<Integer, SimpleBinaryIPChannelInfo>() {
+                                /** receive buffer of this connection - returned into pool when reading ends */
+                                private SimpleBinaryRingBuffer inBuffer = buffer;
+
                                 @Override
                                 public void completed(Integer result, final SimpleBinaryIPChannelInfo chInfo) {
 
@@ -179,7 +260,7 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                             logger.debug("TCPserver - Channel {} disconnected", chInfo.getIp());
                                         }
 
-                                        closeChannel(chInfo);
+                                        readFinished(chInfo);
 
                                         return;
                                     }
@@ -194,14 +275,16 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                     }
 
                                     // data processing
-                                    SimpleBinaryByteBuffer inBuffer = chInfo.getBuffer();
+                                    inBuffer.commitWrite(result);
 
                                     if (logger.isDebugEnabled()) {
                                         logger.debug("TCPserver - Channel {} - received data buffer size = {}",
-                                                chInfo.getIp(), inBuffer.position());
+                                                chInfo.getIp(), inBuffer.size());
                                     }
 
-                                    while (inBuffer.position() > 3) {
+                                    while (inBuffer.size() > 3) {
+                                        // request window negotiated in this frame
+                                        int negotiatedWindow = 0;
 
                                         // verify device first
                                         if (!chInfo.isDeviceIdAlreadyReceived()) {
@@ -238,10 +321,12 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                                                     r.deviceId);
 
                                                             // send info to device
-                                                            sendDataOut(SimpleBinaryProtocol.compileDenyDataFrame(
-                                                                    r.deviceId, (byte) 0x1), chInfo);
+                                                            sendDataOut(new SimpleBinaryRequest(
+                                                                    SimpleBinaryProtocol.compileDenyDataFrame(
+                                                                            r.deviceId, (byte) 0x1),
+                                                                    false), chInfo);
                                                             // close channel
-                                                            closeChannel(chInfo);
+                                                            readFinished(chInfo);
 
                                                             return;
                                                             // ID equals but IP mismatch
@@ -253,9 +338,10 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                                         logger.error("TCPserver - DeviceID {} will be ignored.",
                                                                 r.deviceId);
                                                         // send info to device
-                                                        sendDataOut(SimpleBinaryProtocol
-                                                                .compileDenyDataFrame(r.deviceId, (byte) 0x2), chInfo);
-                                                        closeChannel(chInfo);
+                                                        sendDataOut(new SimpleBinaryRequest(SimpleBinaryProtocol
+                                                                .compileDenyDataFrame(r.deviceId, (byte) 0x2), false),
+                                                                chInfo);
+                                                        readFinished(chInfo);
                                                         return;
                                                     } else if (logger.isDebugEnabled()) {
                                                         logger.debug(
@@ -276,36 +362,95 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                                     }
                                                 }
 
-                                                // send Welcome response
-                                                sendDataOut(SimpleBinaryProtocol.compileWelcomeDataFrame(
-                                                        r.getDeviceId(), chInfo.getDeviceId()), chInfo);
+                                                // device offers sequence numbers in Hi message flags
+                                                if (r.getMessageType() == SimpleBinaryMessageType.HI) {
+                                                    negotiatedWindow = SimpleBinaryProtocol
+                                                            .negotiateRequestWindow(inBuffer.peek(2), requestWindow);
+                                                }
+
+                                                // send Welcome response (device does not answer it)
+                                                sendDataOut(new SimpleBinaryRequest(negotiatedWindow > 0
+                                                        ? SimpleBinaryProtocol.compileWelcomeDataFrame(r.getDeviceId(),
+                                                                chInfo.getDeviceId(), negotiatedWindow)
+                                                        : SimpleBinaryProtocol.compileWelcomeDataFrame(r.getDeviceId(),
+                                                                chInfo.getDeviceId()),
+                                                        false), chInfo);
                                             } else {
                                                 logger.error(
                                                         "TCPserver - Channel {} - device will be ignored. Non valid packet.",
                                                         chInfo.getIp());
-                                                closeChannel(chInfo);
+                                                readFinished(chInfo);
                                                 return;
                                             }
                                         }
 
+                                        // answer is matched with request by sequence number
+                                        int sequence = -1;
+                                        boolean resend = false;
+                                        SimpleBinaryItemData lastSentData = chInfo.getLastSentData();
+
+                                        if (chInfo.isSequenced() && inBuffer.wrapFrame(inBuffer.getFrame()) > 0) {
+                                            sequence = inBuffer.getFrame().getSequence();
+                                            resend = inBuffer.getFrame()
+                                                    .getMessageType() == SimpleBinaryMessageType.RESEND;
+                                            SimpleBinaryRequest request = chInfo.getRequest(sequence);
+                                            lastSentData = request != null ? request.getData() : null;
+                                        }
+
                                         // look what is in income raw data
                                         int r = chInfo.isIpLocked()
-                                                ? processData(inBuffer, chInfo.getLastSentData(),
+                                                ? processData(inBuffer, lastSentData,
                                                         Byte.valueOf((byte) chInfo.getDeviceId()))
-                                                : processData(inBuffer, chInfo.getLastSentData());
+                                                : processData(inBuffer, lastSentData);
+
+                                        if (negotiatedWindow > 0) {
+                                            // Hi message processed - next frames carry sequence number
+                                            chInfo.enableSequence(negotiatedWindow);
+                                            logger.info("TCPserver - Device {}/{} - sequence enabled. Window={}",
+                                                    chInfo.getDeviceId(), chInfo.getIp(), negotiatedWindow);
+                                        }
 
-                                        if (r >= 0 || r == ProcessDataResult.INVALID_CRC
+                                        if (r == ProcessDataResult.DATA_NOT_COMPLETED
+                                                || r == ProcessDataResult.PROCESSING_ERROR) {
+                                            break;
+                                        }
+
+                                        if (chInfo.isSequenced()) {
+                                            // sequence number of corrupted frame is not reliable
+                                            // and frames with sequence 0 are not requested
+                                            if (sequence > 0 && (r >= 0 || r == ProcessDataResult.BAD_CONFIG
+                                                    || r == ProcessDataResult.NO_VALID_ADDRESS)) {
+                                                // resend is written again and answered later
+                                                boolean requeued = resend && lastSentData != null
+                                                        && lastSentData.getResendCounter() < MAX_RESEND_COUNT;
+                                                SimpleBinaryRequest request = chInfo.answerReceived(sequence, resend,
+                                                        MAX_RESEND_COUNT);
+
+                                                if (request != null) {
+                                                    if (requeued) {
+                                                        // answer timeout starts again
+                                                        requestResent(chInfo.getDeviceId(), request);
+                                                        // write request to resend
+                                                        flushSendQueue(chInfo);
+                                                    } else {
+                                                        // complete request with this sequence number
+                                                        notifyDevice(chInfo.getDeviceId(), request,
+                                                                inBuffer.getMessageType());
+                                                    }
+                                                } else {
+                                                    logger.warn("TCPserver - Device {}/{} - unexpected sequence {}",
+                                                            chInfo.getDeviceId(), chInfo.getIp(), sequence);
+                                                }
+                                            }
+                                        } else if (r >= 0 || r == ProcessDataResult.INVALID_CRC
                                                 || r == ProcessDataResult.BAD_CONFIG
                                                 || r == ProcessDataResult.NO_VALID_ADDRESS
                                                 || r == ProcessDataResult.UNKNOWN_MESSAGE) {
                                             // waiting for answer?
-                                            if (chInfo.waitingForAnswer.get()) {
-                                                // stop block sent
-                                                chInfo.clearWaitingForAnswer();
+                                            if (chInfo.requestAnswered()) {
+                                                // complete oldest request
+                                                notifyDevice(chInfo.getDeviceId(), inBuffer.getMessageType());
                                             }
-                                        } else if (r == ProcessDataResult.DATA_NOT_COMPLETED
-                                                || r == ProcessDataResult.PROCESSING_ERROR) {
-                                            break;
                                         }
                                     }
 
@@ -314,8 +459,31 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                                 chInfo.getIp());
                                     }
 
-                                    // ready for new data
-                                    chInfo.getChannel().read(buffer, chInfo, this);
+                                    if (inBuffer.free() == 0 && inBuffer.wrapFrame(
+                                            inBuffer.getFrame()) == SimpleBinaryFrame.INCOMPLETE) {
+                                        // frame longer than buffer - exchange buffer for bigger one
+                                        SimpleBinaryRingBuffer bigger = bufferPool.grow(inBuffer,
+                                                inBuffer.getFrame().getExpectedLength());
+
+                                        if (bigger != null) {
+                                            if (logger.isDebugEnabled()) {
+                                                logger.debug("TCPserver - Channel {} - receive buffer grown to {}B",
+                                                        chInfo.getIp(), bigger.capacity());
+                                            }
+                                            chInfo.setBuffer(bigger);
+                                            inBuffer = bigger;
+                                        }
+                                    }
+
+                                    if (inBuffer.free() == 0) {
+                                        overrunBytes.addAndGet(inBuffer.size());
+                                        logger.error("TCPserver - Channel {} - Buffer overrun. {}B dropped",
+                                                chInfo.getIp(), inBuffer.size());
+                                        inBuffer.clear();
+                                    }
+
+                                    // ready for new data (closed channel ends with failed())
+                                    channel.read(inBuffer.getWriteView(), chInfo, this);
 
                                     if (chInfo.isDeviceIdAlreadyReceived() || chInfo.isIpLocked()) {
                                         sendDeviceCommands(chInfo);
@@ -328,7 +496,33 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
                                         logger.debug("TCPserver - " + t.toString());
                                     } else {
                                         logger.warn("TCPserver - read exception: " + t.toString());
+                                    }
+                                    readFinished(chInfo);
+                                }
+
+                                /**
+                                 * Close connection and return receive buffer into pool. Buffer is released only here
+                                 * because other threads closing channel could not know if it is still decoded.
+                                 *
+                                 * @param chInfo
+                                 */
+                                private void readFinished(SimpleBinaryIPChannelInfo chInfo) {
+                                    if (chInfo.getChannel() == channel) {
                                         closeChannel(chInfo);
+                                    } else {
+                                        // record was already closed or assigned to new connection
+                                        try {
+                                            channel.close();
+                                        } catch (IOException e) {
+                                            logger.debug("TCPserver - channel close exception: {}", e.getMessage());
+                                        }
+                                    }
+
+                                    bufferPool.release(inBuffer);
+                                    inBuffer = null;
+
+                                    if (logger.isDebugEnabled()) {
+                                        logger.debug("{} - {}", SimpleBinaryIP.this.toString(), bufferPool);
                                     }
                                 }
                             });
@@ -405,39 +599,41 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
     }
 
     /*
-     * Can send if specific device does not wait for answer or is ready to write.
+     * Can send if specific device has free request window and its send queue is not full.
      */
     @Override
     protected boolean canSend(int devId) {
-        for (SimpleBinaryIPChannelInfo c : channels) {
-            if (c.getDeviceId() == devId) {
-                return !(c.waitingForAnswer.get() || c.getChannel() == null || !c.getChannel().isOpen()
-                        || !c.writeReady.get());
-            }
+        SimpleBinaryIPChannelInfo c = channels.getById(devId);
+
+        if (c == null) {
+            return false;
         }
 
-        return false;
+        return !(c.isWindowFull() || c.getChannel() == null || !c.getChannel().isOpen()
+                || c.isSendQueueFull());
     }
 
     /**
-     * Write data into device stream
+     * Write request into device stream
      *
-     * @param data
-     *            Item data with compiled packet
+     * @param request
+     *            Request with compiled packet
      */
     @Override
-    protected boolean sendDataOut(SimpleBinaryItemData data) {
+    protected boolean sendDataOut(SimpleBinaryRequest request) {
 
-        return sendDataOut(data, channels.getById(data.getDeviceId()));
+        return sendDataOut(request, channels.getById(request.getData().getDeviceId()));
     }
 
     /**
-     * Write data into device stream
+     * Write request into device stream
      *
-     * @param data
-     *            Item data with compiled packet
+     * @param request
+     *            Request with compiled packet
      */
-    protected boolean sendDataOut(SimpleBinaryItemData data, SimpleBinaryIPChannelInfo chInfo) {
+    protected boolean sendDataOut(SimpleBinaryRequest request, SimpleBinaryIPChannelInfo chInfo) {
+        final SimpleBinaryItemData data = request.getData();
+
         if (logger.isDebugEnabled()) {
             logger.debug("{} - Try to send data to device {} - {} bytes", this.toString(), data.getDeviceId(),
                     data.getData().length);
@@ -453,75 +649,160 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
             return false;
         }
 
-        if (!chInfo.writeReady.compareAndSet(true, false)) {
-            logger.warn("{} - Device {}: Write into channel is not ready.", this.toString(), data.getDeviceId());
+        // frames are queued even while answer is awaited - device answers them in order or by sequence number
+        if (!chInfo.enqueue(request)) {
+            logger.info("{} - Sending data to device {} discarted. {} is full.", this.toString(), data.getDeviceId(),
+                    chInfo.isSequenced() && chInfo.isWindowFull() ? "Request window" : "Send queue");
             return false;
         }
 
-        if (!chInfo.compareAndSetWaitingForAnswer()) {
-            // if (logger.isDebugEnabled()) {
-            logger.info("{} - Sending data to device {} discarted. Another send/wait is processed.", this.toString(),
-                    data.getDeviceId());
-            // }
-            return false;
-        } else {
-            // write string to tcp channel
-
-            ByteBuffer buffer = ByteBuffer.allocate(data.getData().length);
-            buffer.order(ByteOrder.LITTLE_ENDIAN);
-            buffer.put(data.getData());
-            buffer.flip();
-
-            chInfo.setWriteBuffer(buffer);
-            chInfo.setLastSentData(data);
-
-            // write into device
-            chInfo.getChannel().write(buffer, chInfo, new CompletionHandler<Integer, SimpleBinaryIPChannelInfo>() {
-                @Override
-                public void completed(Integer result, final SimpleBinaryIPChannelInfo chInfo) {
-
-                    if (result < 0) {
-                        // if (logger.isDebugEnabled()) {
-                        logger.info("TCPserver -  Channel {} disconnected", chInfo.getIp());
-                        // }
-
-                        closeChannel(chInfo);
-
-                        return;
-                    }
-
-                    if (chInfo == null) {
-                        return;
-                    }
-
-                    if (chInfo.getWriteBuffer().remaining() > 0) {
-                        logger.info("TCPserver - Device {}/{} - Write rest {}/{}", chInfo.getDeviceId(), chInfo.getIp(),
-                                chInfo.getWriteBuffer().remaining(), chInfo.getWriteBuffer().limit());
-                        chInfo.getChannel().write(chInfo.getWriteBuffer(), chInfo, this);
-                    } else {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("TCPserver - Device {}/{} - Write finished", chInfo.getDeviceId(),
-                                    chInfo.getIp());
-                        }
-                        chInfo.clearWriteBuffer();
+        chInfo.setLastSentData(data);
+
+        // write into device (or leave it in queue for running write)
+        flushSendQueue(chInfo);
 
-                        chInfo.writeReady.set(true);
-                    }
+        return true;
+    }
+
+    /**
+     * Start write of queued frames if no write is running. All queued frames are written by one gathering write.
+     *
+     * @param chInfo
+     */
+    private void flushSendQueue(final SimpleBinaryIPChannelInfo chInfo) {
+        while (chInfo.writeReady.compareAndSet(true, false)) {
+            int count = chInfo.prepareWriteBuffers();
+            AsynchronousSocketChannel channel = chInfo.getChannel();
+
+            if (count > 0 && channel != null) {
+                if (logger.isDebugEnabled() && count > 1) {
+                    logger.debug("{} - Device {}/{} - Writing {} frames at once", toString(), chInfo.getDeviceId(),
+                            chInfo.getIp(), count);
                 }
+                channel.write(chInfo.getWriteBuffers(), 0, count, 0L, TimeUnit.MILLISECONDS, chInfo, writeHandler);
+                return;
+            }
+
+            chInfo.writeReady.set(true);
+
+            // frame could be queued before write flag was released
+            if (channel == null || !chInfo.hasQueuedData()) {
+                return;
+            }
+        }
+    }
+
+    /** write completion shared by all channels */
+    private final CompletionHandler<Long, SimpleBinaryIPChannelInfo> writeHandler = new CompletionHandler<>() {
+        @Override
+        public void completed(Long result, final SimpleBinaryIPChannelInfo chInfo) {
+
+            if (result < 0) {
+                // if (logger.isDebugEnabled()) {
+                logger.info("TCPserver -  Channel {} disconnected", chInfo.getIp());
+                // }
+
+                closeChannel(chInfo);
+
+                return;
+            }
+
+            if (chInfo == null) {
+                return;
+            }
 
-                @Override
-                public void failed(Throwable t, SimpleBinaryIPChannelInfo chInfo) {
-                    logger.warn("TCPserver - " + t.toString());
+            int pending = chInfo.getPendingWriteBuffer();
+            AsynchronousSocketChannel channel = chInfo.getChannel();
 
-                    closeChannel(chInfo);
+            if (pending >= 0 && channel != null) {
+                logger.info("TCPserver - Device {}/{} - Write rest {}B", chInfo.getDeviceId(), chInfo.getIp(),
+                        chInfo.getWriteBuffers()[pending].remaining());
+                channel.write(chInfo.getWriteBuffers(), pending, chInfo.getWriteCount() - pending, 0L,
+                        TimeUnit.MILLISECONDS, chInfo, this);
+            } else {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("TCPserver - Device {}/{} - Write finished", chInfo.getDeviceId(), chInfo.getIp());
                 }
-            });
+
+                chInfo.writeReady.set(true);
+                // write frames queued meanwhile
+                flushSendQueue(chInfo);
+            }
         }
 
-        return true;
+        @Override
+        public void failed(Throwable t, SimpleBinaryIPChannelInfo chInfo) {
+            logger.warn("TCPserver - " + t.toString());
+
+            closeChannel(chInfo);
+        }
+    };
+
+    /**
+     * Return count of frames waiting in send queues of all connections
+     *
+     * @return
+     */
+    public int getSendQueueDepth() {
+        int depth = 0;
+        for (SimpleBinaryIPChannelInfo c : channels) {
+            depth += c.getSendQueueDepth();
+        }
+        return depth;
+    }
+
+    /**
+     * Return maximum send queue depth reached by any connection
+     *
+     * @return
+     */
+    public int getSendQueueMaxDepth() {
+        int depth = 0;
+        for (SimpleBinaryIPChannelInfo c : channels) {
+            depth = Math.max(depth, c.getSendQueueMaxDepth());
+        }
+        return depth;
+    }
+
+    /**
+     * Return count of frames dropped or rejected because of full send queue
+     *
+     * @return
+     */
+    public long getSendQueueOverflows() {
+        long count = 0;
+        for (SimpleBinaryIPChannelInfo c : channels) {
+            count += c.getSendQueueOverflows();
+        }
+        return count;
+    }
+
+    /**
+     * Return maximum count of frames in connection send queue
+     *
+     * @return
+     */
+    public int getSendQueueSize() {
+        return sendQueueSize;
     }
 
+    /**
+     * Return behaviour of full send queue
+     *
+     * @return
+     */
+    public SimpleBinarySendQueueOverflow getSendQueueOverflow() {
+        return sendQueueOverflow;
+    }
+
+    /**
+     * Close client connection. Receive buffer is returned into pool by read handler when pending read ends.
+     *
+     * @param chInfo
+     */
     private void closeChannel(final SimpleBinaryIPChannelInfo chInfo) {
+        final int deviceId = chInfo.getDeviceId();
+
         try {
             if (chInfo.getChannel() != null && chInfo.getChannel().isOpen()) {
                 chInfo.getChannel().close();
@@ -534,7 +815,14 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
             chInfo.closed();
         }
 
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Device {}/{} send queue: max depth={}, overflows={}", toString(), chInfo.getDeviceId(),
+                    chInfo.getIp(), chInfo.getSendQueueMaxDepth(), chInfo.getSendQueueOverflows());
+        }
+
         setDeviceState(chInfo.getDeviceId(), DeviceStates.NOT_RESPONDING);
+        // no answer will come
+        cancelRequests(deviceId);
     }
 
     public void addDevice(String deviceID, String ipAddress, boolean isIpLocked) {
@@ -552,8 +840,8 @@ public class SimpleBinaryIP extends SimpleBinaryGenericDevice {
      *
      */
     @Override
-    public void checkNewData() {
-        super.checkNewData();
+    public CompletableFuture<Void> checkNewData() {
+        return super.checkNewData();
     }
 
     /*
@@ -17,8 +17,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
-import java.util.Iterator;
-import java.util.Timer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
@@ -34,11 +34,30 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
     private static final Logger logger = LoggerFactory.getLogger(SimpleBinaryIPChannelInfo.class);
 
     private AsynchronousSocketChannel channel = null;
-    private SimpleBinaryByteBuffer buffer = null;
+    private SimpleBinaryRingBuffer buffer = null;
     private final SimpleBinaryIPChannelInfoCollection collection;
     private InetSocketAddress address = null;
-    private ByteBuffer writeBuffer = null;
+    /** direct buffers for gathering write, one per frame */
+    private ByteBuffer[] writeBuffers = null;
+    /** count of buffers used by current write */
+    private int writeCount = 0;
+    /** frames waiting for write */
+    private final ArrayDeque<SimpleBinaryRequest> sendQueue = new ArrayDeque<>();
+    /** maximum queue depth reached */
+    private int sendQueueMaxDepth = 0;
+    /** count of frames dropped or rejected because of full queue */
+    private long sendQueueOverflows = 0;
     private SimpleBinaryItemData lastSentData = null;
+    /** count of requests allowed to be outstanding, 0 when sequence numbers are not used */
+    private volatile int requestWindow = 0;
+    /** requests written and waiting for answer indexed by sequence number */
+    private final SimpleBinaryRequest[] inFlight = new SimpleBinaryRequest[256];
+    /** count of requests queued or waiting for answer */
+    private int outstanding = 0;
+    /** next sequence number (0 is used by device for frames not requested by master) */
+    private int nextSequence = 1;
+    /** count of frames at queue head queued before sequence numbers were enabled */
+    private int legacyQueued = 0;
 
     private int configuredDeviceID = -1;
     private int receivedDeviceID = -1;
@@ -50,9 +69,9 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
     protected AtomicBoolean writeReady = new AtomicBoolean(false);
     /** flag waiting */
     protected final AtomicBoolean waitingForAnswer = new AtomicBoolean(false);
-    /** timer measuring answer timeout */
-    protected final Timer timer = new Timer();
-    protected TimeoutTask timeoutTask = null;
+    /** answer timeout armed in shared timing wheel */
+    protected final SimpleBinaryTimingWheel.Timeout answerTimeout = SimpleBinaryTimingWheel.getInstance()
+            .newTimeout(this::answerTimeouted);
     protected SimpleBinaryIRequestTimeouted requestTimeouted;
     protected boolean disposed = false;
 
@@ -64,7 +83,7 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
      * @param collection
      * @param timeoutEvent
      */
-    public SimpleBinaryIPChannelInfo(AsynchronousSocketChannel channel, ByteBuffer buffer,
+    public SimpleBinaryIPChannelInfo(AsynchronousSocketChannel channel, SimpleBinaryRingBuffer buffer,
             SimpleBinaryIPChannelInfoCollection collection, SimpleBinaryIRequestTimeouted timeoutEvent) {
         super(-1);
         this.collection = collection;
@@ -104,13 +123,13 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
         disposed = true;
 
         logger.debug("{} - Disposing...", toString());
-        timer.cancel();
+        answerTimeout.cancel();
     }
 
-    public void assignChannel(AsynchronousSocketChannel channel, ByteBuffer buffer,
+    public void assignChannel(AsynchronousSocketChannel channel, SimpleBinaryRingBuffer buffer,
             SimpleBinaryIRequestTimeouted timeoutEvent) {
         this.channel = channel;
-        this.buffer = new SimpleBinaryByteBuffer(buffer);
+        this.buffer = buffer;
         this.requestTimeouted = timeoutEvent;
 
         // get connected channel address
@@ -198,10 +217,14 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
         return receivedDeviceID != -1;
     }
 
-    public SimpleBinaryByteBuffer getBuffer() {
+    public SimpleBinaryRingBuffer getBuffer() {
         return buffer;
     }
 
+    public void setBuffer(SimpleBinaryRingBuffer buffer) {
+        this.buffer = buffer;
+    }
+
     public AsynchronousSocketChannel getChannel() {
         return channel;
     }
@@ -220,9 +243,15 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
     public void closed() {
         clearWaitingForAnswer();
 
+        if (!hasIdConfigured() && collection != null) {
+            // release received ID before it is forgotten
+            collection.releaseId(this);
+        }
+
         channel = null;
         buffer = null;
-        writeBuffer = null;
+        clearSendQueue();
+        disableSequence();
         requestTimeouted = null;
         lastSentData = null;
         receivedDeviceID = -1;
@@ -235,16 +264,356 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
         }
     }
 
-    public ByteBuffer getWriteBuffer() {
-        return writeBuffer;
+    /**
+     * Put frame into send queue. When queue is full, overflow policy is applied. Awaited request is outstanding until
+     * it is answered and with sequence numbers it is refused when request window is full. Sequence number is assigned
+     * when request is written.
+     *
+     * @param request
+     * @return False if frame was rejected
+     */
+    public boolean enqueue(SimpleBinaryRequest request) {
+        final int size = collection.device.getSendQueueSize();
+        SimpleBinaryRequest dropped = null;
+
+        synchronized (sendQueue) {
+            if (request.isAwaited() && requestWindow > 0 && outstanding >= requestWindow) {
+                return false;
+            }
+
+            if (sendQueue.size() >= size) {
+                sendQueueOverflows++;
+
+                if (collection.device.getSendQueueOverflow() == SimpleBinarySendQueueOverflow.REJECT) {
+                    return false;
+                }
+
+                dropped = sendQueue.pollFirst();
+                if (dropped.isAwaited()) {
+                    outstanding--;
+                }
+            }
+
+            sendQueue.addLast(request);
+
+            if (request.isAwaited() && outstanding++ == 0) {
+                setWaitingForAnswer(true);
+            }
+
+            if (sendQueue.size() > sendQueueMaxDepth) {
+                sendQueueMaxDepth = sendQueue.size();
+            }
+        }
+
+        if (dropped != null) {
+            logger.warn("{} - Send queue full. Frame for device {} dropped.", toString(),
+                    dropped.getData().getDeviceId());
+            if (dropped.isAwaited()) {
+                // answer will not come
+                collection.device.requestDiscarded(dropped.getData().getDeviceId(), dropped);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Move queued frames into direct write buffers
+     *
+     * @return Count of prepared buffers
+     */
+    public int prepareWriteBuffers() {
+        synchronized (sendQueue) {
+            if (writeBuffers == null) {
+                writeBuffers = new ByteBuffer[collection.device.getSendQueueSize()];
+            }
+
+            writeCount = 0;
+
+            while (!sendQueue.isEmpty() && writeCount < writeBuffers.length) {
+                SimpleBinaryRequest request = sendQueue.pollFirst();
+                SimpleBinaryItemData data = request.getData();
+                ByteBuffer buffer = writeBuffers[writeCount];
+                boolean sequenced = requestWindow > 0 && legacyQueued == 0;
+                int length = sequenced ? data.getSequencedLength() : data.getData().length;
+
+                if (legacyQueued > 0) {
+                    legacyQueued--;
+                }
+
+                // buffer is allocated once and reallocated only when bigger frame should be sent
+                if (buffer == null || buffer.capacity() < length) {
+                    int capacity = 64;
+                    while (capacity < length) {
+                        capacity <<= 1;
+                    }
+                    buffer = ByteBuffer.allocateDirect(capacity);
+                    writeBuffers[writeCount] = buffer;
+                }
+
+                buffer.clear();
+                if (sequenced) {
+                    int sequence = nextSequence;
+                    nextSequence = (nextSequence == 255) ? 1 : nextSequence + 1;
+
+                    if (inFlight[sequence] != null) {
+                        // answer will not come anymore - request was completed by its timeout
+                        outstanding--;
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("{} - Request with sequence {} was not answered", toString(), sequence);
+                        }
+                    }
+                    inFlight[sequence] = request;
+                    data.writeTo(buffer, sequence);
+                } else {
+                    data.writeTo(buffer);
+                }
+                buffer.flip();
+                writeCount++;
+            }
+
+            return writeCount;
+        }
+    }
+
+    /**
+     * Return buffers of current write
+     *
+     * @return
+     */
+    public ByteBuffer[] getWriteBuffers() {
+        return writeBuffers;
+    }
+
+    /**
+     * Return index of first buffer of current write with unwritten data
+     *
+     * @return Buffer index or -1 if everything was written
+     */
+    public int getPendingWriteBuffer() {
+        for (int i = 0; i < writeCount; i++) {
+            if (writeBuffers[i].hasRemaining()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return count of buffers used by current write
+     *
+     * @return
+     */
+    public int getWriteCount() {
+        return writeCount;
     }
 
-    public void setWriteBuffer(ByteBuffer buffer) {
-        writeBuffer = buffer;
+    /**
+     * Check if frames are waiting in send queue
+     *
+     * @return
+     */
+    public boolean hasQueuedData() {
+        synchronized (sendQueue) {
+            return !sendQueue.isEmpty();
+        }
     }
 
-    public void clearWriteBuffer() {
-        writeBuffer = null;
+    /**
+     * Check if send queue is full
+     *
+     * @return
+     */
+    public boolean isSendQueueFull() {
+        synchronized (sendQueue) {
+            return sendQueue.size() >= collection.device.getSendQueueSize();
+        }
+    }
+
+    /**
+     * Return count of queued frames
+     *
+     * @return
+     */
+    public int getSendQueueDepth() {
+        synchronized (sendQueue) {
+            return sendQueue.size();
+        }
+    }
+
+    /**
+     * Return maximum count of queued frames
+     *
+     * @return
+     */
+    public int getSendQueueMaxDepth() {
+        synchronized (sendQueue) {
+            return sendQueueMaxDepth;
+        }
+    }
+
+    /**
+     * Return count of frames dropped or rejected because of full queue
+     *
+     * @return
+     */
+    public long getSendQueueOverflows() {
+        synchronized (sendQueue) {
+            return sendQueueOverflows;
+        }
+    }
+
+    /**
+     * Discard queued frames and current write
+     */
+    public void clearSendQueue() {
+        synchronized (sendQueue) {
+            sendQueue.clear();
+            writeCount = 0;
+            legacyQueued = 0;
+        }
+    }
+
+    /**
+     * Start to use sequence numbers. Frames already waiting in send queue are written without them.
+     *
+     * @param window Count of requests that could be outstanding at once
+     */
+    public void enableSequence(int window) {
+        synchronized (sendQueue) {
+            legacyQueued = sendQueue.size();
+            outstanding = 0;
+            nextSequence = 1;
+            Arrays.fill(inFlight, null);
+            requestWindow = window;
+            // welcome answer is not awaited - it comes without request sequence number
+            setWaitingForAnswer(false);
+        }
+
+        final SimpleBinaryRingBuffer b = buffer;
+        if (b != null) {
+            b.setSequenced(true);
+        }
+    }
+
+    /**
+     * Stop to use sequence numbers and forget outstanding requests
+     */
+    private void disableSequence() {
+        synchronized (sendQueue) {
+            requestWindow = 0;
+            outstanding = 0;
+            Arrays.fill(inFlight, null);
+        }
+    }
+
+    /**
+     * Check if frames carry sequence numbers
+     *
+     * @return
+     */
+    public boolean isSequenced() {
+        return requestWindow > 0;
+    }
+
+    /**
+     * Return count of requests that could be outstanding at once
+     *
+     * @return
+     */
+    public int getRequestWindow() {
+        return requestWindow > 0 ? requestWindow : 1;
+    }
+
+    /**
+     * Check if no more request can be sent before some answer come
+     *
+     * @return
+     */
+    public boolean isWindowFull() {
+        if (requestWindow == 0) {
+            return waitingForAnswer.get();
+        }
+
+        synchronized (sendQueue) {
+            return outstanding >= requestWindow;
+        }
+    }
+
+    /**
+     * Return request waiting for answer with given sequence number
+     *
+     * @param sequence
+     * @return Request or null
+     */
+    public SimpleBinaryRequest getRequest(int sequence) {
+        if (sequence < 0) {
+            return null;
+        }
+
+        synchronized (sendQueue) {
+            return inFlight[sequence & 0xFF];
+        }
+    }
+
+    /**
+     * Match answer with request by sequence number. When device asked for resend, request is queued again.
+     *
+     * @param sequence
+     * @param resend Device asked for resend
+     * @param maxResendCount
+     * @return Answered request or null if no request with this sequence number is waiting
+     */
+    public SimpleBinaryRequest answerReceived(int sequence, boolean resend, int maxResendCount) {
+        synchronized (sendQueue) {
+            SimpleBinaryRequest request = inFlight[sequence & 0xFF];
+
+            if (request == null) {
+                return null;
+            }
+
+            inFlight[sequence & 0xFF] = null;
+
+            if (resend && request.getData().getResendCounter() < maxResendCount) {
+                request.getData().incrementResendCounter();
+                // still outstanding - write it again with new sequence number
+                sendQueue.addLast(request);
+                answerTimeout.schedule(collection.device.timeout);
+
+                return request;
+            }
+
+            if (--outstanding == 0) {
+                setWaitingForAnswer(false);
+            } else {
+                // device is still answering - wait for the rest
+                answerTimeout.schedule(collection.device.timeout);
+            }
+
+            return request;
+        }
+    }
+
+    /**
+     * Account answer of request sent without sequence number. Device answers requests in order they were written.
+     *
+     * @return False if no request was waiting for answer
+     */
+    public boolean requestAnswered() {
+        synchronized (sendQueue) {
+            if (outstanding == 0) {
+                return false;
+            }
+
+            if (--outstanding == 0) {
+                setWaitingForAnswer(false);
+            } else {
+                // device is still answering - wait for the rest
+                answerTimeout.schedule(collection.device.timeout);
+            }
+
+            return true;
+        }
     }
 
     /**
@@ -272,45 +641,22 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
         waitingForAnswer.set(state);
 
         if (state) {
-            if (timeoutTask != null) {
-                timeoutTask.cancel();
-            }
-
-            timeoutTask = new TimeoutTask(this, requestTimeouted) {
-                @Override
-                public void run() {
-                    timeoutTask = null;
-                    // dataTimeouted
-                    if (this.event != null) {
-                        this.event.timeoutEvent(this.device);
-                    }
-
-                    clearWaitingForAnswer();
-                }
-            };
-
-            timer.schedule(timeoutTask, collection.device.timeout);
+            answerTimeout.schedule(collection.device.timeout);
         } else {
-            if (timeoutTask != null) {
-                timeoutTask.cancel();
-                timeoutTask = null;
-            }
+            answerTimeout.cancel();
         }
     }
 
     /**
-     * Set waiting task for answer for target device if waitingForAnswer not set.
-     * Return true if flag is set
-     *
+     * Answer timeout expiration
      */
-    protected boolean compareAndSetWaitingForAnswer() {
-        if (waitingForAnswer.compareAndSet(false, true)) {
-            setWaitingForAnswer(true);
-
-            return true;
-        } else {
-            return false;
+    private void answerTimeouted() {
+        final SimpleBinaryIRequestTimeouted event = requestTimeouted;
+        if (event != null) {
+            event.timeoutEvent(this);
         }
+
+        clearWaitingForAnswer();
     }
 
     protected void clearWaitingForAnswer() {
@@ -336,11 +682,8 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
      * @return True if successfully assigned false if other device use this id or configured is different
      */
     public boolean assignDeviceId(int devId) {
-        receivedDeviceID = devId;
-
-        logger.info("Device {} assigned to ID={}", this.getIpReceived(), devId);
-
         if (isIpLocked) {
+            receivedDeviceID = devId;
             if (logger.isDebugEnabled()) {
                 logger.debug("Device {} locked. No assign needed.", this.getIpReceived());
             }
@@ -348,82 +691,33 @@ public class SimpleBinaryIPChannelInfo extends SimpleBinaryDevice {
         }
 
         if (collection != null) {
-
             if (logger.isDebugEnabled()) {
-                logger.debug("collection size={}", collection.size());
-
-                String collectioToString = "";
-
-                for (SimpleBinaryIPChannelInfo i : collection) {
-                    if (collectioToString.length() > 0) {
-                        collectioToString += ",";
-                    }
-                    collectioToString += i.getDeviceId() + "/" + i.getIp() + "/"
-                            + (i.getChannel() == null ? "no channel" : (i.getChannel().isOpen() ? "open" : "closed"));
-                }
-
-                logger.debug("collection is={}", collectioToString);
+                logger.debug("collection size={}, collection is={}", collection.size(), collection);
             }
 
-            // remove duplicate channels in collection and check for already used IDs
-            for (Iterator<SimpleBinaryIPChannelInfo> itr = collection.iterator(); itr.hasNext();) {
-                SimpleBinaryIPChannelInfo item = itr.next();
-
-                // is not me
-                if (!item.equals(this)) {
-                    // channel isn't online
-                    if (item.getChannel() == null) {
-                        // same ID
-                        if (item.getDeviceIdConfigured() == devId) {
-                            configuredDeviceID = item.getDeviceIdConfigured();
-                            configuredDeviceIP = item.getIpConfigured();
-
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("Device {} - ID assigning. Old channel record removed(ID={},IP={})",
-                                        this.getIpReceived(), item.getDeviceId(), item.getIp());
-                            }
-
-                            itr.remove();
-                            break;
-                        }
-                        // live channel
-                    } else {
-                        // same ID
-                        if (item.getDeviceIdReceived() == devId) {
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("Device {} - ID assigning. Same channel exist(ID={},IP={}).",
-                                        this.getIpReceived(), item.getDeviceId(), item.getIp());
-                            }
-                            return false;
-                        } else if (item.hasIdConfigured() && item.getIp().equals(this.getIpReceived())) {
-                            if (logger.isDebugEnabled()) {
-                                logger.debug(
-                                        "Device {} - ID assigning. For this IP={} is assigned and configured another device with ID={}.",
-                                        this.getIpReceived(), item.getIp(), item.getDeviceId());
-                            }
-                            return false;
-                        }
-                    }
-                }
+            // claim ID in registry (fails if it is already used)
+            if (!collection.claimId(devId, this)) {
+                return false;
             }
+        }
 
-            if (logger.isDebugEnabled()) {
-                String collectioToString = "";
-
-                for (SimpleBinaryIPChannelInfo i : collection) {
-                    if (collectioToString.length() > 0) {
-                        collectioToString += ",";
-                    }
-                    collectioToString += i.getDeviceId() + "/" + i.getIp();
-                }
+        receivedDeviceID = devId;
 
-                logger.debug("collection after remove is={}", collectioToString);
-            }
-        }
+        logger.info("Device {} assigned to ID={}", this.getIpReceived(), devId);
 
         return true;
     }
 
+    /**
+     * Take over configuration of disconnected record with same device ID
+     *
+     * @param record
+     */
+    void takeConfiguration(SimpleBinaryIPChannelInfo record) {
+        configuredDeviceID = record.getDeviceIdConfigured();
+        configuredDeviceIP = record.getIpConfigured();
+    }
+
     public boolean hasIpMismatch() {
         if (configuredDeviceIP.length() == 0) {
             return false;
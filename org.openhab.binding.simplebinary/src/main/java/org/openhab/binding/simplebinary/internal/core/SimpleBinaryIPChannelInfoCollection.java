@@ -8,31 +8,41 @@
  */
 package org.openhab.binding.simplebinary.internal.core;
 
-import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.openhab.binding.simplebinary.internal.core.SimpleBinaryDeviceState.DeviceStates;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Channel info
+ * Registry of connected and configured TCP clients. Clients are indexed by device ID and by configured IP address.
+ * Device ID is owned by one client at a time. ID is claimed and released atomically, so the registry can be used
+ * from NIO completion threads without additional locking.
  *
  * @author Vita Tucek
  * @since 1.9.0
  */
-public class SimpleBinaryIPChannelInfoCollection extends LinkedList<SimpleBinaryIPChannelInfo> {
-    private static final long serialVersionUID = 8037598025330106665L;
+public class SimpleBinaryIPChannelInfoCollection implements Iterable<SimpleBinaryIPChannelInfo> {
     public final SimpleBinaryIP device;
 
     private static final Logger logger = LoggerFactory.getLogger(SimpleBinaryIPChannelInfoCollection.class);
 
+    /** all clients */
+    private final Set<SimpleBinaryIPChannelInfo> channels = ConcurrentHashMap.newKeySet();
+    /** client owning device ID */
+    private final AtomicReferenceArray<SimpleBinaryIPChannelInfo> byId = new AtomicReferenceArray<>(256);
+    /** configured clients by IP address */
+    private final ConcurrentHashMap<String, SimpleBinaryIPChannelInfo> byIp = new ConcurrentHashMap<>();
+
     public SimpleBinaryIPChannelInfoCollection(SimpleBinaryIP device) {
         this.device = device;
     }
 
-    public SimpleBinaryIPChannelInfo addChannel(AsynchronousSocketChannel channel, ByteBuffer buffer,
+    public SimpleBinaryIPChannelInfo addChannel(AsynchronousSocketChannel channel, SimpleBinaryRingBuffer buffer,
             SimpleBinaryIRequestTimeouted timeoutEvent) {
 
         if (logger.isDebugEnabled()) {
@@ -40,31 +50,36 @@ public class SimpleBinaryIPChannelInfoCollection extends LinkedList<SimpleBinary
         }
 
         String channelIp = SimpleBinaryIPChannelInfo.retrieveAddress(channel).getAddress().getHostAddress();
+        SimpleBinaryIPChannelInfo i = byIp.get(channelIp);
 
-        for (SimpleBinaryIPChannelInfo i : this) {
-            if (i.getChannel() == null && i.hasIpConfigured()) {
-                // assign only locked connection
-                if (channelIp.equals(i.getIpConfigured())) {
+        if (i != null) {
+            // assign only to disconnected record
+            synchronized (i) {
+                if (i.getChannel() == null) {
                     i.assignChannel(channel, buffer, timeoutEvent);
+                } else {
+                    i = null;
+                }
+            }
+        }
 
-                    device.setDeviceState(i.getDeviceId(), DeviceStates.CONNECTED);
-
-                    if (logger.isDebugEnabled()) {
-                        if (i.isIpLocked()) {
-                            logger.debug("Channel is locked and already exists");
-                        } else {
-                            logger.debug("Channel exist in client configuration and ID={} is expected",
-                                    i.getDeviceIdConfigured());
-                        }
-                    }
+        if (i != null) {
+            device.setDeviceState(i.getDeviceId(), DeviceStates.CONNECTED);
 
-                    return i;
+            if (logger.isDebugEnabled()) {
+                if (i.isIpLocked()) {
+                    logger.debug("Channel is locked and already exists");
+                } else {
+                    logger.debug("Channel exist in client configuration and ID={} is expected",
+                            i.getDeviceIdConfigured());
                 }
             }
+
+            return i;
         }
 
         SimpleBinaryIPChannelInfo channelInfo = new SimpleBinaryIPChannelInfo(channel, buffer, this, timeoutEvent);
-        this.add(channelInfo);
+        channels.add(channelInfo);
 
         if (logger.isDebugEnabled()) {
             logger.debug("New channel in collection created");
@@ -73,28 +88,152 @@ public class SimpleBinaryIPChannelInfoCollection extends LinkedList<SimpleBinary
         return channelInfo;
     }
 
+    /**
+     * Remove client from registry and release its device ID
+     *
+     * @param o
+     * @return
+     */
     public boolean remove(SimpleBinaryIPChannelInfo o) {
         device.setDeviceState(o.getDeviceId(), DeviceStates.NOT_RESPONDING);
 
-        return super.remove(o);
+        releaseId(o);
+        if (o.hasIpConfigured()) {
+            byIp.remove(o.getIpConfigured(), o);
+        }
+
+        return channels.remove(o);
     }
 
-    public SimpleBinaryIPChannelInfo getById(int id) {
-        if (this.size() == 0) {
-            return null;
+    /**
+     * Claim device ID for client. ID of disconnected configured record is taken over together with its
+     * configuration.
+     *
+     * @param devId
+     * @param chInfo
+     * @return False if ID is used by another connected client or client IP is configured for connected device
+     */
+    public boolean claimId(int devId, SimpleBinaryIPChannelInfo chInfo) {
+        if (devId < 0 || devId >= byId.length()) {
+            return false;
         }
 
-        for (SimpleBinaryIPChannelInfo i : this) {
-            if (i.getDeviceId() == id) {
-                return i;
+        final String ip = chInfo.getIpReceived();
+        if (ip != null) {
+            SimpleBinaryIPChannelInfo configured = byIp.get(ip);
+            if (configured != null && configured != chInfo && configured.getChannel() != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug(
+                            "Device {} - ID assigning. For this IP={} is assigned and configured another device with ID={}.",
+                            ip, configured.getIp(), configured.getDeviceId());
+                }
+                return false;
             }
         }
 
-        return null;
+        while (true) {
+            SimpleBinaryIPChannelInfo owner = byId.get(devId);
+
+            if (owner == chInfo) {
+                return true;
+            }
+            if (owner == null) {
+                if (byId.compareAndSet(devId, null, chInfo)) {
+                    return true;
+                }
+                continue;
+            }
+            if (owner.getChannel() != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Device {} - ID assigning. Same channel exist(ID={},IP={}).", ip,
+                            owner.getDeviceId(), owner.getIp());
+                }
+                return false;
+            }
+
+            // disconnected configured record - take it over
+            synchronized (owner) {
+                if (owner.getChannel() != null || !byId.compareAndSet(devId, owner, chInfo)) {
+                    continue;
+                }
+            }
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Device {} - ID assigning. Old channel record removed(ID={},IP={})", ip,
+                        owner.getDeviceId(), owner.getIp());
+            }
+
+            chInfo.takeConfiguration(owner);
+            channels.remove(owner);
+            if (owner.hasIpConfigured()) {
+                byIp.replace(owner.getIpConfigured(), owner, chInfo);
+            }
+            owner.dispose();
+
+            return true;
+        }
+    }
+
+    /**
+     * Release device ID owned by client
+     *
+     * @param chInfo
+     */
+    public void releaseId(SimpleBinaryIPChannelInfo chInfo) {
+        int devId = chInfo.getDeviceId();
+
+        if (devId >= 0 && devId < byId.length()) {
+            byId.compareAndSet(devId, chInfo, null);
+        }
+    }
+
+    /**
+     * Return client owning device ID
+     *
+     * @param id
+     * @return
+     */
+    public SimpleBinaryIPChannelInfo getById(int id) {
+        if (id < 0 || id >= byId.length()) {
+            return null;
+        }
+
+        return byId.get(id);
     }
 
     public void addConfiguredChannel(int deviceID, String ipAddress, boolean isIpLocked) {
-        this.add(new SimpleBinaryIPChannelInfo(deviceID, ipAddress, isIpLocked, this) {
-        });
+        SimpleBinaryIPChannelInfo channelInfo = new SimpleBinaryIPChannelInfo(deviceID, ipAddress, isIpLocked, this);
+
+        channels.add(channelInfo);
+        if (deviceID >= 0 && deviceID < byId.length()) {
+            byId.set(deviceID, channelInfo);
+        }
+        if (channelInfo.hasIpConfigured()) {
+            byIp.put(ipAddress, channelInfo);
+        }
+    }
+
+    public int size() {
+        return channels.size();
+    }
+
+    @Override
+    public Iterator<SimpleBinaryIPChannelInfo> iterator() {
+        return channels.iterator();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (SimpleBinaryIPChannelInfo i : channels) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(i.getDeviceId()).append('/').append(i.getIp()).append('/')
+                    .append(i.getChannel() == null ? "no channel" : (i.getChannel().isOpen() ? "open" : "closed"));
+        }
+
+        return sb.toString();
     }
 }
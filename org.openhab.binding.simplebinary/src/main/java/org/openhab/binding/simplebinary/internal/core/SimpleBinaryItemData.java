@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.simplebinary.internal.core;
 
+import java.nio.ByteBuffer;
+
 /**
  *
  * Class holding item data
@@ -63,6 +65,39 @@ public class SimpleBinaryItemData extends SimpleBinaryMessage {
         return itemData;
     }
 
+    /**
+     * Write item raw data into buffer at its current position
+     *
+     * @param target
+     */
+    public void writeTo(ByteBuffer target) {
+        target.put(itemData);
+    }
+
+    /**
+     * Write item raw data into buffer at its current position with sequence byte inserted before CRC. CRC is
+     * recalculated.
+     *
+     * @param target
+     * @param sequence
+     */
+    public void writeTo(ByteBuffer target, int sequence) {
+        int start = target.position();
+
+        target.put(itemData, 0, itemData.length - 1);
+        target.put((byte) sequence);
+        target.put(SimpleBinaryCRC8.eval(target, start, target.position()));
+    }
+
+    /**
+     * Return length of raw data with sequence byte
+     *
+     * @return
+     */
+    public int getSequencedLength() {
+        return itemData.length + 1;
+    }
+
     /**
      * Return resend counter value
      *
@@ -82,4 +117,12 @@ public class SimpleBinaryItemData extends SimpleBinaryMessage {
     public int incrementResendCounter() {
         return ++resendCounter;
     }
+
+    /**
+     * Reset resend counter value
+     *
+     */
+    public void resetResendCounter() {
+        resendCounter = 0;
+    }
 }
@@ -65,6 +65,16 @@ public class SimpleBinaryMessage {
      * @return
      */
     public SimpleBinaryMessageType getMessageType() {
+        return getMessageType(messageId);
+    }
+
+    /**
+     * Return message type depending on given message ID
+     *
+     * @param messageId
+     * @return
+     */
+    public static SimpleBinaryMessageType getMessageType(byte messageId) {
         switch (messageId) {
             case (byte) 0xD0:
                 return SimpleBinaryMessageType.CHECKNEWDATA;
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Histograms of time between two new data checks of every device. Latency is counted into buckets with bounds in
+ * 1-2-5 series, so percentiles are known with bucket precision. Maximum is exact.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryPollLatency {
+    /** bucket upper bounds [ms], last bucket is unbounded */
+    private static final long[] BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 20000, 50000,
+            100000 };
+
+    /** histograms per device in period */
+    private final Map<Integer, Histogram> devices = new HashMap<>();
+
+    /**
+     * Latency of one device in period
+     */
+    public static class Latency {
+        /** count of checks */
+        public final long count;
+        /** median [ms] */
+        public final long p50;
+        /** 99th percentile [ms] */
+        public final long p99;
+        /** maximum [ms] */
+        public final long max;
+
+        Latency(long count, long p50, long p99, long max) {
+            this.count = count;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Latency summary of one period
+     */
+    public static class Summary {
+        /** highest 99th percentile of all devices [ms] */
+        public final long p99;
+        /** highest latency of all devices [ms] */
+        public final long max;
+        /** latency per device */
+        public final Map<Integer, Latency> devices;
+
+        Summary(long p99, long max, Map<Integer, Latency> devices) {
+            this.p99 = p99;
+            this.max = max;
+            this.devices = devices;
+        }
+    }
+
+    private static class Histogram {
+        final long[] buckets = new long[BOUNDS.length + 1];
+        long count = 0;
+        long max = 0;
+
+        void add(long latency) {
+            int i = 0;
+            while (i < BOUNDS.length && latency > BOUNDS[i]) {
+                i++;
+            }
+            buckets[i]++;
+            count++;
+            max = Math.max(max, latency);
+        }
+
+        long percentile(int percent) {
+            final long rank = (count * percent + 99) / 100;
+            long sum = 0;
+
+            for (int i = 0; i < BOUNDS.length; i++) {
+                sum += buckets[i];
+                if (sum >= rank) {
+                    return Math.min(BOUNDS[i], max);
+                }
+            }
+
+            return max;
+        }
+    }
+
+    /**
+     * Add time between two new data checks of device
+     *
+     * @param deviceId
+     * @param latency [ms]
+     */
+    public synchronized void add(int deviceId, long latency) {
+        devices.computeIfAbsent(deviceId, id -> new Histogram()).add(latency);
+    }
+
+    /**
+     * Return latency summary and start new period
+     *
+     * @return
+     */
+    public synchronized Summary takeSummary() {
+        final Map<Integer, Latency> latency = new HashMap<>();
+        long p99 = 0, max = 0;
+
+        for (Map.Entry<Integer, Histogram> device : devices.entrySet()) {
+            Histogram h = device.getValue();
+            Latency l = new Latency(h.count, h.percentile(50), h.percentile(99), h.max);
+
+            latency.put(device.getKey(), l);
+            p99 = Math.max(p99, l.p99);
+            max = Math.max(max, l.max);
+        }
+
+        devices.clear();
+
+        return new Summary(p99, max, latency);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Schedule of state channels reading in ONSCAN mode. Channels are kept in heap ordered by time of next read, so cycle
+ * takes only channels that are due. Channels without poll interval are due every cycle.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryPollScheduler {
+    private final PriorityQueue<Entry> heap;
+
+    /**
+     * Construct scheduler. All channels are due at first cycle.
+     *
+     * @param items State channels
+     */
+    public SimpleBinaryPollScheduler(List<SimpleBinaryChannel> items) {
+        heap = new PriorityQueue<>(Math.max(1, items.size()));
+
+        int order = 0;
+        for (SimpleBinaryChannel item : items) {
+            heap.add(new Entry(item, item.getPollInterval(), order++));
+        }
+    }
+
+    /**
+     * Take channels that are due and schedule their next read
+     *
+     * @param now Current time [ms]
+     * @param tolerance Channel due within tolerance is taken too [ms]
+     * @return Due channels ordered by due time
+     */
+    public synchronized List<SimpleBinaryChannel> takeDue(long now, long tolerance) {
+        final List<SimpleBinaryChannel> due = new ArrayList<>();
+        final List<Entry> taken = new ArrayList<>();
+
+        while (!heap.isEmpty() && heap.peek().due <= now + tolerance) {
+            Entry e = heap.poll();
+            due.add(e.item);
+            taken.add(e);
+        }
+
+        for (Entry e : taken) {
+            // keep phase unless whole period was missed
+            e.due += e.interval;
+            if (e.due <= now) {
+                e.due = now + e.interval;
+            }
+            heap.add(e);
+        }
+
+        return due;
+    }
+
+    /**
+     * Return time when next channel is due
+     *
+     * @return Time [ms] or Long.MAX_VALUE if there is no channel
+     */
+    public synchronized long getNextDue() {
+        Entry e = heap.peek();
+
+        return e != null ? e.due : Long.MAX_VALUE;
+    }
+
+    /**
+     * Return count of scheduled channels
+     *
+     * @return
+     */
+    public synchronized int size() {
+        return heap.size();
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        final SimpleBinaryChannel item;
+        final int interval;
+        /** configuration order - keeps order of channels due at same time */
+        final int order;
+        long due = 0;
+
+        Entry(SimpleBinaryChannel item, int interval, int order) {
+            this.item = item;
+            this.interval = interval;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int c = Long.compare(due, o.due);
+
+            return c != 0 ? c : Integer.compare(order, o.order);
+        }
+    }
+}
@@ -8,18 +8,10 @@
  */
 package org.openhab.binding.simplebinary.internal.core;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 
-import org.openhab.binding.simplebinary.internal.SimpleBinaryBindingConstants;
-import org.openhab.core.library.types.HSBType;
-import org.openhab.core.library.types.IncreaseDecreaseType;
-import org.openhab.core.library.types.OnOffType;
-import org.openhab.core.library.types.OpenClosedType;
-import org.openhab.core.library.types.PercentType;
-import org.openhab.core.library.types.StopMoveType;
-import org.openhab.core.library.types.StringType;
-import org.openhab.core.library.types.UpDownType;
 import org.openhab.core.types.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +28,25 @@ public class SimpleBinaryProtocol {
 
     static int INCREASE_STEP = 5;
 
+    /** "Hi" flag - device supports sequence numbers. Upper nibble holds device request window (0 - no limit). */
+    public static final int HI_FLAG_SEQUENCE = 0x01;
+    /** maximum count of outstanding requests per device */
+    public static final int MAX_REQUEST_WINDOW = 16;
+
+    /**
+     * Result of decodeFrame()
+     */
+    public static class DecodeResult {
+        /** frame decoded */
+        public static final int OK = 0;
+        /** frame is not complete yet */
+        public static final int INCOMPLETE = 1;
+        /** unknown message ID */
+        public static final int UNKNOWN_MESSAGE = 2;
+        /** CRC not valid */
+        public static final int INVALID_CRC = 3;
+    }
+
     /**
      * Compile data "new data" request packet
      *
@@ -94,6 +105,49 @@ public class SimpleBinaryProtocol {
         return new SimpleBinaryItemData((byte) 0xD1, deviceID, data);
     }
 
+    /**
+     * Compile data "Welcome" response packet which enables sequence numbers. From now on every frame carries sequence
+     * byte before CRC.
+     *
+     * @param deviceID
+     * @param assignedId
+     * @param window Count of requests that could be sent without waiting for answer
+     * @return
+     */
+    public static SimpleBinaryItemData compileWelcomeDataFrame(int deviceID, int assignedId, int window) {
+        byte[] data = new byte[5];
+
+        data[0] = (byte) (deviceID & 0xFF);
+        data[1] = (byte) 0xD4;
+        data[2] = (byte) (assignedId & 0xFF);
+        data[3] = (byte) (window & 0xFF);
+        data[4] = evalCRC(data, 4);
+
+        return new SimpleBinaryItemData((byte) 0xD4, deviceID, data);
+    }
+
+    /**
+     * Return request window resulting from "Hi" message flags and master limit
+     *
+     * @param flags Flags byte of "Hi" message
+     * @param window Request window configured in master
+     * @return Request window or 0 if sequence numbers cannot be used
+     */
+    public static int negotiateRequestWindow(int flags, int window) {
+        if ((flags & HI_FLAG_SEQUENCE) == 0 || window <= 1) {
+            return 0;
+        }
+
+        int deviceWindow = (flags >> 4) & 0x0F;
+
+        if (deviceWindow > 0) {
+            window = Math.min(window, deviceWindow);
+        }
+
+        // no gain with single outstanding request
+        return window > 1 ? Math.min(window, MAX_REQUEST_WINDOW) : 0;
+    }
+
     /**
      * Compile data "Deny" response packet
      *
@@ -115,19 +169,22 @@ public class SimpleBinaryProtocol {
     }
 
     /**
-     * Compile command data for specific item
+     * Compile command data for specific item. Returned item holds channel frame template, which is valid until next
+     * command for the same channel is compiled.
      *
      * @param channel
      * @return
      * @throws Exception
      */
     public static SimpleBinaryItem compileDataFrame(SimpleBinaryChannel channel, Charset charset) throws Exception {
-        byte[] data = compileDataFrameEx(channel, channel.getCommand(), charset);
+        SimpleBinaryCommandEncoder encoder = getEncoder(channel);
 
-        if (data == null) {
+        if (!encoder.encode(channel.getCommand(), charset)) {
             return null;
         }
 
+        byte[] data = encoder.getFrame();
+
         return new SimpleBinaryItem(channel, data[1], channel.getCommandAddress().getDeviceId(),
                 channel.getCommandAddress().getAddress(), data);
     }
@@ -143,302 +200,35 @@ public class SimpleBinaryProtocol {
      */
     public static byte[] compileDataFrameEx(SimpleBinaryChannel channel, Type command, Charset charset)
             throws Exception {
-        byte[] data;
-        var address = channel.getCommandAddress();
+        SimpleBinaryCommandEncoder encoder = getEncoder(channel);
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("compileDataFrame(): channel:{}|datatype:{}", channel.channelId, address.getType());
-        }
-
-        switch (address.getType()) {
-            case BYTE:
-                data = new byte[6];
-                data[1] = (byte) 0xDA;
-                break;
-            case WORD:
-                data = new byte[7];
-                data[1] = (byte) 0xDB;
-                break;
-            case DWORD:
-            case FLOAT:
-                data = new byte[9];
-                data[1] = (byte) 0xDC;
-                break;
-            case HSB:
-            case RGB:
-            case RGBW:
-                data = new byte[9];
-                data[1] = (byte) 0xDD;
-                break;
-            case ARRAY:
-                int arraylen = address.getLength();
-                data = new byte[7 + arraylen];
-                data[1] = (byte) 0xDE;
-                // length
-                data[4] = (byte) (arraylen & 0xFF);
-                data[5] = (byte) ((arraylen >> 8) & 0xFF);
-                break;
-            default:
-                throw new Exception(String.format(
-                        "Cannot create WriteDataFrame. Command for ChannelType=%s must have defined datatype.",
-                        channel.channelType.getId()));
+        if (!encoder.encode(command, charset)) {
+            return null;
         }
 
-        int datalen = data.length;
-
-        // bus address
-        data[0] = (byte) (address.getDeviceId() & 0xFF);
-        // item address / ID
-        data[2] = (byte) (address.getAddress() & 0xFF);
-        data[3] = (byte) ((address.getAddress() >> 8) & 0xFF);
-
-        if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_NUMBER)) {
-            if (!(command instanceof Number)) {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command for ChannelType=%s must be DecimalType",
-                                channel.channelType.getId()));
-            }
-            Number cmd = (Number) command;
-            if (address.getType() == SimpleBinaryTypes.BYTE) {
-                data[4] = cmd.byteValue();
-            } else if (address.getType() == SimpleBinaryTypes.WORD) {
-                data[4] = (byte) (cmd.intValue() & 0xFF);
-                data[5] = (byte) ((cmd.intValue() >> 8) & 0xFF);
-            } else if (address.getType() == SimpleBinaryTypes.DWORD) {
-                data[4] = (byte) (cmd.intValue() & 0xFF);
-                data[5] = (byte) ((cmd.intValue() >> 8) & 0xFF);
-                data[6] = (byte) ((cmd.intValue() >> 16) & 0xFF);
-                data[7] = (byte) ((cmd.intValue() >> 24) & 0xFF);
-            } else if (address.getType() == SimpleBinaryTypes.FLOAT) {
-                float value = cmd.floatValue();
-                int bits = Float.floatToIntBits(value);
-
-                data[4] = (byte) (bits & 0xFF);
-                data[5] = (byte) ((bits >> 8) & 0xFF);
-                data[6] = (byte) ((bits >> 16) & 0xFF);
-                data[7] = (byte) ((bits >> 24) & 0xFF);
-            } else {
-                throw new Exception(String.format(
-                        "Cannot create WriteDataFrame. Command for ChannelType=%s has unsupported datatype=%s",
-                        channel.channelType.getId(), address.getType()));
-            }
-        } else if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_STRING)) {
-            if (!(command instanceof StringType)) {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command for ChannelType=%s must be StringType",
-                                channel.channelType.getId()));
-            }
-            StringType cmd = (StringType) command;
-            String str = cmd.toString();
-
-            data = new byte[address.getLength()];
-
-            var bytes = str.getBytes(charset);
-
-            for (int i = 0; i < address.getLength(); i++) {
-                if (i < bytes.length) {
-                    data[6 + i] = bytes[i];
-                } else {
-                    data[6 + i] = 0x0;
-                }
-            }
-        } else if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_SWITCH)) {
-            if (!(command instanceof OnOffType)) {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command for ChannelType=%s must be OnOffType",
-                                channel.channelType.getId()));
-            }
-
-            OnOffType cmd = (OnOffType) command;
-
-            if (cmd == OnOffType.ON) {
-                data[4] = 1;
-            } else {
-                data[4] = 0;
-            }
-        } else if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_CONTACT)) {
-            if (!(command instanceof OpenClosedType)) {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command for ChannelType=%s must be OpenClosedType",
-                                channel.channelType.getId()));
-            }
-
-            OpenClosedType cmd = (OpenClosedType) command;
-
-            if (cmd == OpenClosedType.OPEN) {
-                data[4] = 1;
-            } else {
-                data[4] = 0;
-            }
-        } else if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_COLOR)) {
-            HSBType hsbVal = null;
-
-            if (command instanceof OnOffType) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("OnOffType");
-                }
-                OnOffType onOffCmd = (OnOffType) command;
-
-                if (onOffCmd == OnOffType.OFF) {
-                    hsbVal = HSBType.BLACK;
-                } else {
-                    hsbVal = HSBType.WHITE;
-                }
-            } else if (command instanceof IncreaseDecreaseType) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("IncreaseDecreaseType");
-                }
-                hsbVal = HSBType.BLACK;
-                int brightness = hsbVal.getBrightness().intValue();
-
-                IncreaseDecreaseType upDownCmd = (IncreaseDecreaseType) command;
-
-                if (upDownCmd == IncreaseDecreaseType.INCREASE) {
-                    brightness += INCREASE_STEP;
-
-                    if (brightness > 100) {
-                        brightness = 100;
-                    }
-                } else {
-                    brightness -= INCREASE_STEP;
-
-                    if (brightness < 0) {
-                        brightness = 0;
-                    }
-                }
-
-                hsbVal = new HSBType(hsbVal.getHue(), hsbVal.getSaturation(), new PercentType(brightness));
-            } else if (command instanceof HSBType) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("HSBType");
-                }
-                hsbVal = (HSBType) command;
-            } else if (command instanceof PercentType) {
-                if (logger.isDebugEnabled()) {
-                    logger.debug("PercentType");
-                }
-                hsbVal = HSBType.WHITE;
-                hsbVal = new HSBType(hsbVal.getHue(), hsbVal.getSaturation(), (PercentType) command);
-            } else {
-                logger.error("Unsupported command type {} for target datatype {}. Command={}.",
-                        command.getClass().toString(), address.getType(), command.toString());
-                return null;
-            }
-
-            if (logger.isDebugEnabled()) {
-                logger.debug("Channel {}: Red={} Green={} Blue={}", channel.channelId, hsbVal.getRed(),
-                        hsbVal.getGreen(), hsbVal.getBlue());
-                logger.debug("         Hue={} Sat={} Bri={}", hsbVal.getHue(), hsbVal.getSaturation(),
-                        hsbVal.getBrightness());
-                logger.debug("         AddressType={}", address.getType());
-            }
-
-            HSBType cmd = hsbVal;
-
-            if (address.getType() == SimpleBinaryTypes.HSB) {
-                data[4] = (byte) (cmd.getHue().shortValue() & 0xFF);
-                data[5] = (byte) ((cmd.getHue().shortValue() >> 8) & 0xFF);
-                data[6] = cmd.getSaturation().byteValue();
-                data[7] = cmd.getBrightness().byteValue();
-            } else if (address.getType() == SimpleBinaryTypes.RGB) {
-                long red = Math.round((cmd.getRed().doubleValue() * 2.55));
-                long green = Math.round((cmd.getGreen().doubleValue() * 2.55));
-                long blue = Math.round((cmd.getBlue().doubleValue() * 2.55));
-
-                if (red > 255) {
-                    red = 255;
-                }
-                if (green > 255) {
-                    green = 255;
-                }
-                if (blue > 255) {
-                    blue = 255;
-                }
-
-                if (logger.isDebugEnabled()) {
-                    logger.debug("         Converted to 0-255: Red={} Green={} Blue={}", red, green, blue);
-                }
-
-                data[4] = (byte) (red & 0xFF);
-                data[5] = (byte) (green & 0xFF);
-                data[6] = (byte) (blue & 0xFF);
-                data[7] = 0x0;
-            } else if (address.getType() == SimpleBinaryTypes.RGBW) {
-                long red = Math.round((cmd.getRed().doubleValue() * 2.55));
-                long green = Math.round((cmd.getGreen().doubleValue() * 2.55));
-                long blue = Math.round((cmd.getBlue().doubleValue() * 2.55));
-                byte white;
-
-                if (red > 255) {
-                    red = 255;
-                }
-                if (green > 255) {
-                    green = 255;
-                }
-                if (blue > 255) {
-                    blue = 255;
-                }
-
-                if (logger.isDebugEnabled()) {
-                    logger.debug("         Converted to 0-255: Red={} Green={} Blue={}", red, green, blue);
-                }
-
-                byte[] rgbw = calcWhite(red, green, blue);
-                red = rgbw[0];
-                green = rgbw[1];
-                blue = rgbw[2];
-                white = rgbw[3];
+        return encoder.getFrame().clone();
+    }
 
-                if (logger.isDebugEnabled()) {
-                    logger.debug("         Converted to RGBW: Red={} Green={} Blue={} White={}", red & 0xFF,
-                            green & 0xFF, blue & 0xFF, white & 0xFF);
-                }
+    /**
+     * Return channel command encoder. When channel was not initialized, new encoder is created.
+     *
+     * @param channel
+     * @return
+     * @throws Exception
+     */
+    private static SimpleBinaryCommandEncoder getEncoder(SimpleBinaryChannel channel) throws Exception {
+        SimpleBinaryCommandEncoder encoder = channel.getCommandEncoder();
 
-                data[4] = (byte) (red & 0xFF);
-                data[5] = (byte) (green & 0xFF);
-                data[6] = (byte) (blue & 0xFF);
-                data[7] = white;
-            } else {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command %s for ChannelType=%s not implemented",
-                                command.getClass(), channel.channelType.getId()));
-            }
-        } else if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_DIMMER)) {
-            if (command instanceof PercentType) {
-                data[4] = ((PercentType) command).byteValue();
-            } else if (command instanceof OnOffType) {
-                if (((OnOffType) command) == OnOffType.ON) {
-                    data[4] = 100;
-                } else {
-                    data[4] = 0;
-                }
-            } else {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command %s for ChannelType=%s not implemented",
-                                command.getClass(), channel.channelType.getId()));
-            }
-        } else if (channel.channelType.getId().equals(SimpleBinaryBindingConstants.CHANNEL_ROLLERSHUTTER)) {
-            if (command instanceof StopMoveType) {
-                data[5] = (byte) (((StopMoveType) command).equals(StopMoveType.MOVE) ? 0x1 : 0x2);
-            } else if (command instanceof UpDownType) {
-                data[5] = (byte) (((UpDownType) command).equals(UpDownType.UP) ? 0x4 : 0x8);
-            } else if (command instanceof PercentType) {
-                data[5] = 0x1;
-                data[4] = ((PercentType) command).byteValue();
-            } else {
-                throw new Exception(
-                        String.format("Cannot create WriteDataFrame. Command %s for ChannelType=%s not implemented",
-                                command.getClass(), channel.channelType.getId()));
-            }
-        } else {
-            throw new Exception(
-                    String.format("Cannot create WriteDataFrame. Command for ChannelType=%s not implemented.",
-                            channel.channelType.getId()));
+        if (encoder == null) {
+            encoder = SimpleBinaryCommandEncoder.create(channel);
         }
 
-        data[datalen - 1] = evalCRC(data, datalen - 1);
+        if (encoder == null) {
+            throw new Exception(String.format("Cannot create WriteDataFrame. Channel %s has no command address.",
+                    channel.channelId));
+        }
 
-        return data;
+        return encoder;
     }
 
     /**
@@ -449,7 +239,7 @@ public class SimpleBinaryProtocol {
      * @param blue
      * @return
      */
-    private static byte[] calcWhite(long red, long green, long blue) {
+    static byte[] calcWhite(long red, long green, long blue) {
 
         byte[] result = new byte[4];
         float M = Math.max(Math.max(red, green), blue);
@@ -558,161 +348,195 @@ public class SimpleBinaryProtocol {
      * @throws UnknownMessageException
      * @throws ModeChangeException
      */
-    @SuppressWarnings({ "null", "unused" })
     public static SimpleBinaryMessage decompileData(SimpleBinaryByteBuffer data, ArrayList<SimpleBinaryChannel> items,
             Byte forcedDeviceId, boolean letDataInBuffer)
             throws NoValidCRCException, NoValidItemInConfig, UnknownMessageException, ModeChangeException {
-        byte devId = data.get();
-        if (forcedDeviceId != null) {
-            devId = forcedDeviceId;
-        }
-        byte msgId = data.get();
-        int address = 0;
-        byte[] rawPacket;
-        byte[] rawData = null;
-        byte crc = 0, calcCrc;
+        SimpleBinaryFrame frame = data.getFrame();
 
         try {
-
-            switch (msgId) {
-                case (byte) 0xDA:
-                    // check minimal length
-                    if (data.remaining() < 4) {
-                        return null;
-                    }
-
-                    address = data.getShort();
-                    rawData = new byte[1];
-                    rawData[0] = data.get();
-                    data.rewind();
-                    rawPacket = new byte[5];
-                    data.get(rawPacket);
-                    crc = data.get();
-                    // check message crc
-                    calcCrc = evalCRC(rawPacket);
-                    if (crc != calcCrc) {
-                        throw new NoValidCRCException(crc, calcCrc);
-                    }
-
-                    break;
-                case (byte) 0xDB:
-                    // check minimal length
-                    if (data.remaining() < 5) {
-                        return null;
-                    }
-
-                    address = data.getShort();
-                    rawData = new byte[2];
-                    data.get(rawData);
-                    data.rewind();
-                    rawPacket = new byte[6];
-                    data.get(rawPacket);
-                    crc = data.get();
-                    // check message crc
-                    calcCrc = evalCRC(rawPacket);
-                    if (crc != calcCrc) {
-                        throw new NoValidCRCException(crc, calcCrc);
-                    }
-
-                    break;
-
-                case (byte) 0xDC:
-                case (byte) 0xDD:
-                    // check minimal length
-                    if (data.remaining() < 7) {
-                        return null;
-                    }
-
-                    address = data.getShort();
-                    rawData = new byte[4];
-                    data.get(rawData);
-                    data.rewind();
-                    rawPacket = new byte[8];
-                    data.get(rawPacket);
-                    crc = data.get();
-                    // check message crc
-                    calcCrc = evalCRC(rawPacket);
-                    if (crc != calcCrc) {
-                        throw new NoValidCRCException(crc, calcCrc);
-                    }
-
-                    break;
-
-                case (byte) 0xDE:
-                    // check minimal length
-                    if (data.remaining() < 6) {
-                        return null;
-                    }
-
-                    address = data.getShort();
-                    int length = data.getShort();
-
-                    // check declared length
-                    if (data.remaining() < length + 1) {
-                        return null;
-                    }
-
-                    byte[] array = new byte[length];
-                    data.get(array);
-                    rawData = array;
-                    data.rewind();
-                    rawPacket = new byte[6 + length];
-                    data.get(rawPacket);
-                    crc = data.get();
-                    // check message crc
-                    calcCrc = evalCRC(rawPacket);
-                    if (crc != calcCrc) {
-                        throw new NoValidCRCException(crc, calcCrc);
-                    }
-
-                    break;
-                case (byte) 0xE0:
-                case (byte) 0xE1:
-                case (byte) 0xE2:
-                case (byte) 0xE3:
-                case (byte) 0xE4:
-                case (byte) 0xE5:
-                case (byte) 0xE6:
-                case (byte) 0xE7:
-                    data.rewind();
-                    rawPacket = new byte[3];
-                    data.get(rawPacket);
-                    crc = data.get();
-                    // check message crc
-                    calcCrc = evalCRC(rawPacket);
-                    if (crc != calcCrc) {
-                        throw new NoValidCRCException(crc, calcCrc);
-                    }
-
-                    return new SimpleBinaryMessage(msgId, devId & 0xFF, -1); // ,findItem(itemsConfig, deviceName,
-                                                                             // devId,
-                // address)
-                default:
-                    // data.clear();
-
-                    throw new UnknownMessageException(String.format("Unknown message ID: 0x%02X", msgId));
+            if (!decompileFrame(data, frame)) {
+                return null;
             }
-        } catch (Exception ex) {
-            throw ex;
         } finally {
             if (letDataInBuffer) {
                 data.rewind();
             }
         }
 
-        if (rawData != null) {
-            var item = findItem(items, devId, address);
+        int devId = forcedDeviceId != null ? forcedDeviceId & 0xFF : frame.getDeviceId();
+
+        if (!frame.hasValue()) {
+            return new SimpleBinaryMessage(frame.getMessageId(), devId, -1);
+        }
+
+        var item = findItem(items, devId, frame.getAddress());
+
+        if (item == null) {
+            throw new NoValidItemInConfig(devId, frame.getAddress());
+        }
+
+        return new SimpleBinaryItem(item, frame.getMessageId(), devId, frame.getAddress(), frame.getValueArray());
+    }
+
+    /**
+     * Decode received message in place. Message is not copied, frame view is mapped directly on buffer data.
+     * When whole message is available (even with invalid CRC) buffer position is moved behind it.
+     *
+     * @param data
+     * @param frame Frame view to fill
+     * @return One of DecodeResult values
+     * @throws ModeChangeException
+     */
+    public static int decodeFrame(SimpleBinaryByteBuffer data, SimpleBinaryFrame frame) throws ModeChangeException {
+        int length = data.wrapFrame(frame);
+
+        if (length == SimpleBinaryFrame.UNKNOWN_MESSAGE) {
+            return DecodeResult.UNKNOWN_MESSAGE;
+        }
+        if (length == SimpleBinaryFrame.INCOMPLETE) {
+            return DecodeResult.INCOMPLETE;
+        }
+
+        data.position(frame.getOffset() + length);
+
+        // check message crc
+        if (!frame.isCrcValid()) {
+            return DecodeResult.INVALID_CRC;
+        }
+
+        return DecodeResult.OK;
+    }
+
+    /**
+     * Decode message at ring buffer start. Message is not copied and not consumed, frame view is mapped directly on
+     * buffer data.
+     *
+     * @param data
+     * @param frame Frame view to fill
+     * @return One of DecodeResult values
+     */
+    public static int decodeFrame(SimpleBinaryRingBuffer data, SimpleBinaryFrame frame) {
+        int length = data.wrapFrame(frame);
+
+        if (length == SimpleBinaryFrame.UNKNOWN_MESSAGE) {
+            return DecodeResult.UNKNOWN_MESSAGE;
+        }
+        if (length == SimpleBinaryFrame.INCOMPLETE) {
+            return DecodeResult.INCOMPLETE;
+        }
+        // check message crc
+        if (!frame.isCrcValid()) {
+            return DecodeResult.INVALID_CRC;
+        }
+
+        return DecodeResult.OK;
+    }
+
+    /**
+     * Find start of next plausible frame after corrupted data. Buffer is scanned once from given index. Position is
+     * accepted when there is complete frame with valid CRC or beginning of frame which is not complete yet.
+     *
+     * @param frame Frame view used for scanning
+     * @param buffer
+     * @param mask Index mask of ring buffer or -1 for linear buffer
+     * @param from First index to check
+     * @param limit Index after last valid byte
+     * @return Index of next frame start or limit if no frame found
+     */
+    public static int findFrameStart(SimpleBinaryFrame frame, ByteBuffer buffer, int mask, int from, int limit) {
+        return findFrameStart(frame, buffer, mask, from, limit, buffer.capacity(), -1);
+    }
+
+    /**
+     * Find start of next plausible frame after corrupted data. Incomplete frame is accepted only if its length does
+     * not exceed given maximum. Candidate header is checked first and CRC is evaluated only for candidates passing it.
+     * CRC of variable length frame is derived from CRC of scanned data prefixes, so every byte is added into CRC once
+     * and scan stays linear.
+     *
+     * @param frame Frame view used for scanning
+     * @param buffer
+     * @param mask Index mask of ring buffer or -1 for linear buffer
+     * @param from First index to check
+     * @param limit Index after last valid byte
+     * @param maxFrameLength Maximum length of frame that can be received
+     * @param deviceId Expected device ID or -1 if frame from any device is accepted
+     * @return Index of next frame start or limit if no frame found
+     */
+    public static int findFrameStart(SimpleBinaryFrame frame, ByteBuffer buffer, int mask, int from, int limit,
+            int maxFrameLength, int deviceId) {
+        // prefix[n] - CRC of n bytes from scan start
+        byte[] prefix = null;
+        int prefixLength = 0;
+        SimpleBinaryCRC8 crc = null;
+
+        for (int i = from; i < limit; i++) {
+            if (deviceId >= 0 && (buffer.get(i & mask) & 0xFF) != deviceId) {
+                continue;
+            }
+
+            int length = frame.wrap(buffer, mask, i, limit);
+
+            if (length == SimpleBinaryFrame.UNKNOWN_MESSAGE) {
+                continue;
+            }
+            // frame that could never fit into buffer is not plausible
+            if (frame.getExpectedLength() > maxFrameLength) {
+                continue;
+            }
+            if (length == SimpleBinaryFrame.INCOMPLETE) {
+                return i;
+            }
+            if (frame.getMessageId() != (byte) 0xDE) {
+                // short frame - evaluate directly
+                if (frame.isCrcValid()) {
+                    return i;
+                }
+                continue;
+            }
 
-            if (item == null) {
-                throw new NoValidItemInConfig(devId & 0xFF, address);
+            if (prefix == null) {
+                prefix = new byte[limit - from + 1];
+                prefixLength = 1;
+                crc = new SimpleBinaryCRC8();
             }
 
-            SimpleBinaryItem itemData = new SimpleBinaryItem(item, msgId, devId, address, rawData);
+            int end = i - from + length;
 
-            return itemData;
+            while (prefixLength <= end) {
+                prefix[prefixLength] = crc.update(buffer.get((from + prefixLength - 1) & mask)).getValue();
+                prefixLength++;
+            }
+            // CRC of frame including its CRC byte is zero
+            if (SimpleBinaryCRC8.evalPart(prefix[i - from], prefix[end], length) == 0) {
+                return i;
+            }
         }
 
-        return null;
+        return limit;
+    }
+
+    /**
+     * Decompile received message in place. Exception wrapper of decodeFrame().
+     *
+     * @param data
+     * @param frame Frame view to fill
+     * @return True if whole message is available, false when waiting for next data
+     * @throws NoValidCRCException
+     * @throws UnknownMessageException
+     * @throws ModeChangeException
+     */
+    public static boolean decompileFrame(SimpleBinaryByteBuffer data, SimpleBinaryFrame frame)
+            throws NoValidCRCException, UnknownMessageException, ModeChangeException {
+        switch (decodeFrame(data, frame)) {
+            case DecodeResult.UNKNOWN_MESSAGE:
+                throw new UnknownMessageException(String.format("Unknown message ID: 0x%02X", frame.getMessageId()));
+            case DecodeResult.INCOMPLETE:
+                return false;
+            case DecodeResult.INVALID_CRC:
+                throw new NoValidCRCException(frame.getCrc(), frame.evalCrc());
+            default:
+                return true;
+        }
     }
 
     /**
@@ -750,22 +574,7 @@ public class SimpleBinaryProtocol {
      * @return
      */
     public static byte evalCRC(byte[] data, int length) {
-        int crc = 0;
-        int i, j;
-
-        for (j = 0; j < length; j++) {
-            crc ^= (data[j] << 8);
-
-            for (i = 0; i < 8; i++) {
-                if ((crc & 0x8000) != 0) {
-                    crc ^= (0x1070 << 3);
-                }
-
-                crc <<= 1;
-            }
-        }
-
-        byte result = (byte) (crc >> 8);
+        byte result = SimpleBinaryCRC8.eval(data, length);
 
         if (logger.isTraceEnabled()) {
             logger.trace("Counting CRC8 of: {}", arrayToString(data, length));
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Request sent to device. Answer future is completed with type of decoded answer or exceptionally with
+ * {@link TimeoutException} when no answer come in time.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryRequest {
+    private final SimpleBinaryItemData data;
+    /** device answers the frame */
+    private final boolean awaited;
+    private final CompletableFuture<SimpleBinaryMessageType> answer = new CompletableFuture<>();
+    /** answer deadline [ns], 0 until request is sent */
+    private volatile long deadline = 0;
+    /** time of request creation [ns] */
+    private final long created = System.nanoTime();
+    /** time from creation to answer [ns] */
+    private volatile long roundTripTime = -1;
+    /** request was discarded before it was written */
+    private volatile boolean discarded = false;
+
+    /**
+     * Construct request
+     *
+     * @param data Request data
+     */
+    public SimpleBinaryRequest(SimpleBinaryItemData data) {
+        this(data, true);
+    }
+
+    /**
+     * Construct request
+     *
+     * @param data Request data
+     * @param awaited False for frames device does not answer
+     */
+    public SimpleBinaryRequest(SimpleBinaryItemData data, boolean awaited) {
+        this.data = data;
+        this.awaited = awaited;
+    }
+
+    /**
+     * Return request data
+     *
+     * @return
+     */
+    public SimpleBinaryItemData getData() {
+        return data;
+    }
+
+    /**
+     * Check if device answers the frame
+     *
+     * @return
+     */
+    public boolean isAwaited() {
+        return awaited;
+    }
+
+    /**
+     * Return future completed by answer
+     *
+     * @return
+     */
+    public CompletableFuture<SimpleBinaryMessageType> getAnswer() {
+        return answer;
+    }
+
+    /**
+     * Set answer deadline. Deadline is watched by device the request was sent to.
+     *
+     * @param delay Timeout in milliseconds
+     * @return Deadline [ns]
+     */
+    public long setDeadline(long delay) {
+        deadline = System.nanoTime() + delay * 1_000_000L;
+        return deadline;
+    }
+
+    /**
+     * Return answer deadline
+     *
+     * @return Deadline [ns] or 0 if request was not sent yet
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Complete request with received answer
+     *
+     * @param messageType Type of received message
+     * @return False if request was already completed
+     */
+    public boolean complete(SimpleBinaryMessageType messageType) {
+        if (!answer.isDone()) {
+            roundTripTime = System.nanoTime() - created;
+        }
+
+        return answer.complete(messageType);
+    }
+
+    /**
+     * Complete request as not answered
+     *
+     * @return False if request was already completed
+     */
+    public boolean cancel() {
+        return complete(SimpleBinaryMessageType.UNKNOWN);
+    }
+
+    /**
+     * Complete request as not answered because it was discarded before it was written
+     *
+     * @return False if request was already completed
+     */
+    public boolean discard() {
+        discarded = true;
+
+        return cancel();
+    }
+
+    /**
+     * Check if request was discarded before it was written
+     *
+     * @return
+     */
+    public boolean isDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Return time from request creation to its answer
+     *
+     * @return Round trip time [ms] or negative value if request was not answered
+     */
+    public double getRoundTripTime() {
+        return roundTripTime / 1e6;
+    }
+
+    /**
+     * Complete request as timeouted
+     */
+    public void timeouted() {
+        answer.completeExceptionally(new TimeoutException("Device " + data.getDeviceId() + " answer timeout"));
+    }
+}
@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Receive ring buffer with power of two capacity. Data are written at write index and read by peek/consume at read
+ * index, so no data are moved while waiting for rest of frame.
+ *
+ * Buffer is not thread safe. Writer and reader must be synchronized by caller.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryRingBuffer {
+    private final byte[] data;
+    /** view over whole storage used for frame mapping */
+    private final ByteBuffer view;
+    /** view over free space used for channel reads */
+    private final ByteBuffer writeView;
+    private final int mask;
+    private final SimpleBinaryFrame frame = new SimpleBinaryFrame();
+
+    /** index of first unread byte (always lower than capacity) */
+    private int readIndex = 0;
+    /** count of unread bytes */
+    private int size = 0;
+    /** type of last message processed from buffer */
+    private SimpleBinaryMessageType messageType = SimpleBinaryMessageType.UNKNOWN;
+
+    /**
+     * Construct buffer. Capacity is rounded up to power of two.
+     *
+     * @param minCapacity
+     */
+    public SimpleBinaryRingBuffer(int minCapacity) {
+        int capacity = 16;
+        while (capacity < minCapacity) {
+            capacity <<= 1;
+        }
+
+        data = new byte[capacity];
+        view = ByteBuffer.wrap(data);
+        writeView = ByteBuffer.wrap(data);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Return buffer capacity
+     *
+     * @return
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    /**
+     * Return count of unread bytes
+     *
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return free space
+     *
+     * @return
+     */
+    public int free() {
+        return data.length - size;
+    }
+
+    /**
+     * Check if there are no unread bytes
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Discard all data
+     */
+    public void clear() {
+        readIndex = 0;
+        size = 0;
+    }
+
+    /**
+     * Write data into buffer. Only as many bytes as fit into free space are written.
+     *
+     * @param src
+     * @param offset
+     * @param length
+     * @return Count of written bytes
+     */
+    public int write(byte[] src, int offset, int length) {
+        int count = Math.min(length, free());
+        int writeIndex = (readIndex + size) & mask;
+        int first = Math.min(count, data.length - writeIndex);
+
+        System.arraycopy(src, offset, data, writeIndex, first);
+        if (count > first) {
+            System.arraycopy(src, offset + first, data, 0, count - first);
+        }
+
+        size += count;
+
+        return count;
+    }
+
+    /**
+     * Read data from stream directly into free space. Read is split into two parts when free space wraps around
+     * storage end. Only as many bytes as fit into free space are read.
+     *
+     * @param in Input stream
+     * @param length Count of bytes to read (usually bytes available in stream)
+     * @return Count of read bytes
+     * @throws IOException
+     */
+    public int readFrom(InputStream in, int length) throws IOException {
+        int count = Math.min(length, free());
+        int total = 0;
+
+        while (total < count) {
+            int writeIndex = (readIndex + size) & mask;
+            int bytes = in.read(data, writeIndex, Math.min(count - total, data.length - writeIndex));
+
+            if (bytes <= 0) {
+                break;
+            }
+
+            size += bytes;
+            total += bytes;
+        }
+
+        return total;
+    }
+
+    /**
+     * Return view over contiguous free space. View can be passed into channel read. Received bytes must be then
+     * confirmed by commitWrite().
+     *
+     * @return
+     */
+    public ByteBuffer getWriteView() {
+        int writeIndex = (readIndex + size) & mask;
+        int contiguous = Math.min(free(), data.length - writeIndex);
+
+        writeView.limit(writeIndex + contiguous);
+        writeView.position(writeIndex);
+
+        return writeView;
+    }
+
+    /**
+     * Confirm bytes written into write view
+     *
+     * @param count
+     */
+    public void commitWrite(int count) {
+        size += Math.min(count, free());
+    }
+
+    /**
+     * Copy unread data into another buffer. Data in this buffer are not consumed.
+     *
+     * @param target
+     * @return Count of copied bytes
+     */
+    public int copyTo(SimpleBinaryRingBuffer target) {
+        int first = Math.min(size, data.length - readIndex);
+        int count = target.write(data, readIndex, first);
+
+        if (count == first && size > first) {
+            count += target.write(data, 0, size - first);
+        }
+
+        return count;
+    }
+
+    /**
+     * Return unread byte without consuming it
+     *
+     * @param index Index relative to first unread byte
+     * @return
+     */
+    public byte peek(int index) {
+        return data[(readIndex + index) & mask];
+    }
+
+    /**
+     * Remove bytes from buffer start
+     *
+     * @param count
+     */
+    public void consume(int count) {
+        if (count >= size) {
+            clear();
+        } else {
+            readIndex = (readIndex + count) & mask;
+            size -= count;
+        }
+    }
+
+    /**
+     * Map frame on buffer start
+     *
+     * @param frame
+     * @return Frame length, SimpleBinaryFrame.INCOMPLETE or SimpleBinaryFrame.UNKNOWN_MESSAGE
+     */
+    public int wrapFrame(SimpleBinaryFrame frame) {
+        return frame.wrap(view, mask, readIndex, readIndex + size);
+    }
+
+    /**
+     * Set if received frames carry sequence byte
+     *
+     * @param sequenced
+     */
+    public void setSequenced(boolean sequenced) {
+        frame.setSequenced(sequenced);
+    }
+
+    /**
+     * Check if received frames carry sequence byte
+     *
+     * @return
+     */
+    public boolean isSequenced() {
+        return frame.isSequenced();
+    }
+
+    /**
+     * Set type of last message processed from buffer
+     *
+     * @param messageType
+     */
+    public void setMessageType(SimpleBinaryMessageType messageType) {
+        this.messageType = messageType;
+    }
+
+    /**
+     * Return type of last message processed from buffer
+     *
+     * @return
+     */
+    public SimpleBinaryMessageType getMessageType() {
+        return messageType;
+    }
+
+    /**
+     * Return frame view attached to this buffer
+     *
+     * @return
+     */
+    public SimpleBinaryFrame getFrame() {
+        return frame;
+    }
+
+    /**
+     * Return buffer storage view. Indexes must be masked.
+     *
+     * @return
+     */
+    public ByteBuffer getView() {
+        return view;
+    }
+
+    /**
+     * Return index mask
+     *
+     * @return
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Return index of first unread byte in storage
+     *
+     * @return
+     */
+    public int getReadIndex() {
+        return readIndex;
+    }
+
+    /**
+     * Copy unread data into new array
+     *
+     * @return
+     */
+    public byte[] toArray() {
+        return toArray(0, size);
+    }
+
+    /**
+     * Copy part of unread data into new array
+     *
+     * @param from Index relative to first unread byte
+     * @param count
+     * @return
+     */
+    public byte[] toArray(int from, int count) {
+        byte[] result = new byte[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = peek(from + i);
+        }
+
+        return result;
+    }
+}
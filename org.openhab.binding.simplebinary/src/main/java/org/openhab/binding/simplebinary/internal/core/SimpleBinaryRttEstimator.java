@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+/**
+ * Device response timeout estimated from measured round trip times. Smoothed RTT and its variance are evaluated same
+ * way as TCP retransmission timeout (RFC 6298).
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryRttEstimator {
+    /** smoothed round trip time [ms] */
+    private double srtt = 0;
+    /** round trip time variation [ms] */
+    private double rttvar = 0;
+    /** current timeout [ms], 0 until first sample */
+    private double rto = 0;
+
+    /**
+     * Add measured round trip time
+     *
+     * @param rtt Round trip time [ms]
+     */
+    public synchronized void sample(double rtt) {
+        if (rto == 0) {
+            srtt = rtt;
+            rttvar = rtt / 2;
+        } else {
+            rttvar = 0.75 * rttvar + 0.25 * Math.abs(srtt - rtt);
+            srtt = 0.875 * srtt + 0.125 * rtt;
+        }
+        rto = srtt + Math.max(1, 4 * rttvar);
+    }
+
+    /**
+     * Double timeout after missing answer
+     *
+     * @param maxTimeout Upper timeout bound [ms]
+     */
+    public synchronized void backoff(int maxTimeout) {
+        if (rto != 0) {
+            rto = Math.min(rto * 2, maxTimeout);
+        }
+    }
+
+    /**
+     * Return timeout clamped by bounds. Upper bound is returned until first sample.
+     *
+     * @param minTimeout Lower bound [ms]
+     * @param maxTimeout Upper bound [ms]
+     * @return Timeout [ms]
+     */
+    public synchronized int getTimeout(int minTimeout, int maxTimeout) {
+        if (rto == 0) {
+            return maxTimeout;
+        }
+
+        return (int) Math.max(minTimeout, Math.min(maxTimeout, Math.ceil(rto)));
+    }
+
+    /**
+     * Return smoothed round trip time
+     *
+     * @return Round trip time [ms]
+     */
+    public synchronized double getSmoothedRtt() {
+        return srtt;
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+/**
+ * Behaviour of full outbound frame queue
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public enum SimpleBinarySendQueueOverflow {
+    /** new frame is refused */
+    REJECT,
+    /** oldest queued frame is dropped to make room for new one */
+    DROP_OLDEST
+}
@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.nio.ByteBuffer;
+
+import javax.measure.Unit;
+
+import org.openhab.binding.simplebinary.internal.SimpleBinaryBindingConstants;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State decoder resolved once for channel. Decoder converts value stored in receive buffer directly into State.
+ *
+ * Decoding doesn't throw - when value cannot be converted null is returned.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public abstract class SimpleBinaryStateDecoder {
+    private static final Logger logger = LoggerFactory.getLogger(SimpleBinaryStateDecoder.class);
+
+    protected final SimpleBinaryChannel channel;
+    /** Unit parsed in channel init, null if not defined */
+    protected final Unit<?> unit;
+
+    /**
+     * Construct decoder
+     *
+     * @param channel
+     */
+    protected SimpleBinaryStateDecoder(SimpleBinaryChannel channel) {
+        this.channel = channel;
+        this.unit = channel.hasUnit() ? channel.getUnit() : null;
+    }
+
+    /**
+     * Create decoder for channel depending on channel type and state address datatype
+     *
+     * @param channel
+     * @return Decoder or null if channel has no state address
+     */
+    public static SimpleBinaryStateDecoder create(SimpleBinaryChannel channel) {
+        if (channel.getStateAddress() == null || channel.channelType == null) {
+            return null;
+        }
+
+        switch (channel.channelType.getId()) {
+            case SimpleBinaryBindingConstants.CHANNEL_NUMBER:
+                if (channel.getStateAddress().getType() == SimpleBinaryTypes.FLOAT) {
+                    return new FloatDecoder(channel);
+                }
+                return new NumberDecoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_SWITCH:
+                return new SwitchDecoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_CONTACT:
+                return new ContactDecoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_DIMMER:
+            case SimpleBinaryBindingConstants.CHANNEL_ROLLERSHUTTER:
+                return new PercentDecoder(channel);
+            case SimpleBinaryBindingConstants.CHANNEL_COLOR:
+                switch (channel.getStateAddress().getType()) {
+                    case HSB:
+                        return new HsbDecoder(channel);
+                    case RGB:
+                    case RGBW:
+                        return new RgbDecoder(channel);
+                    default:
+                        return new UnsupportedDecoder(channel);
+                }
+            case SimpleBinaryBindingConstants.CHANNEL_STRING:
+                return new StringDecoder(channel);
+            default:
+                return new UnsupportedDecoder(channel);
+        }
+    }
+
+    /**
+     * Convert value into state. Buffer position is not changed.
+     *
+     * @param data Buffer with value
+     * @param offset Value start index
+     * @param length Value length
+     * @return State or null if value cannot be converted
+     */
+    public State decode(ByteBuffer data, int offset, int length) {
+        return decode(data, -1, offset, length);
+    }
+
+    /**
+     * Convert received frame value into state
+     *
+     * @param frame
+     * @return State or null if value cannot be converted
+     */
+    public State decode(SimpleBinaryFrame frame) {
+        return decode(frame.getBuffer(), frame.getMask(), frame.getValueOffset(), frame.getValueLength());
+    }
+
+    /**
+     * Convert value stored in (ring) buffer into state. Buffer position is not changed.
+     *
+     * @param data Buffer with value
+     * @param mask Index mask of ring buffer or -1 for linear buffer
+     * @param offset Value start index
+     * @param length Value length
+     * @return State or null if value cannot be converted
+     */
+    protected abstract State decode(ByteBuffer data, int mask, int offset, int length);
+
+    /**
+     * Return reason why value with given length cannot be converted
+     *
+     * @param length
+     * @return
+     */
+    public String getError(int length) {
+        return String.format("Cannot convert value with length %d for channel %s to %s.", length, channel.channelId,
+                channel.getStateAddress().getType());
+    }
+
+    protected State number(Number value) {
+        return (unit != null) ? new QuantityType<>(value, unit) : new DecimalType(value);
+    }
+
+    protected static byte get(ByteBuffer data, int mask, int index) {
+        return data.get(index & mask);
+    }
+
+    protected static int getWord(ByteBuffer data, int mask, int offset) {
+        return (get(data, mask, offset) & 0xFF) | ((get(data, mask, offset + 1) & 0xFF) << 8);
+    }
+
+    protected static int getInt(ByteBuffer data, int mask, int offset) {
+        return getWord(data, mask, offset) | ((get(data, mask, offset + 2) & 0xFF) << 16)
+                | ((get(data, mask, offset + 3) & 0xFF) << 24);
+    }
+
+    static class UnsupportedDecoder extends SimpleBinaryStateDecoder {
+        UnsupportedDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            return null;
+        }
+
+        @Override
+        public String getError(int length) {
+            return String.format("Cannot convert channel %s to %s. Unsupported channel type: %s", channel.channelId,
+                    channel.getStateAddress().getType(), channel.channelType.getId());
+        }
+    }
+
+    static class NumberDecoder extends SimpleBinaryStateDecoder {
+        NumberDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            switch (length) {
+                case 1:
+                    return number(get(data, mask, offset));
+                case 2:
+                    return number(getWord(data, mask, offset));
+                case 4:
+                    return number(getInt(data, mask, offset));
+                default:
+                    return null;
+            }
+        }
+    }
+
+    static class FloatDecoder extends SimpleBinaryStateDecoder {
+        FloatDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            if (length != 4) {
+                return null;
+            }
+
+            float value = Float.intBitsToFloat(getInt(data, mask, offset));
+
+            if (logger.isTraceEnabled()) {
+                logger.trace("FLOAT value converted: {}", value);
+            }
+
+            return number(value);
+        }
+    }
+
+    static class SwitchDecoder extends SimpleBinaryStateDecoder {
+        SwitchDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            if (length < 1) {
+                return null;
+            }
+            return get(data, mask, offset) == 1 ? OnOffType.ON : OnOffType.OFF;
+        }
+    }
+
+    static class ContactDecoder extends SimpleBinaryStateDecoder {
+        ContactDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            if (length < 1) {
+                return null;
+            }
+            return get(data, mask, offset) == 1 ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+        }
+    }
+
+    static class PercentDecoder extends SimpleBinaryStateDecoder {
+        PercentDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            if (length < 1 || length > 2) {
+                return null;
+            }
+            return new PercentType(Math.min(get(data, mask, offset) & 0xFF, 100));
+        }
+    }
+
+    static class HsbDecoder extends SimpleBinaryStateDecoder {
+        HsbDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            if (length < 4) {
+                return null;
+            }
+            return new HSBType(new DecimalType(Math.min(getWord(data, mask, offset), 359)),
+                    new PercentType(Math.min(get(data, mask, offset + 2) & 0xFF, 100)),
+                    new PercentType(Math.min(get(data, mask, offset + 3) & 0xFF, 100)));
+        }
+    }
+
+    static class RgbDecoder extends SimpleBinaryStateDecoder {
+        RgbDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            if (length < 3) {
+                return null;
+            }
+            return HSBType.fromRGB(get(data, mask, offset) & 0xFF, get(data, mask, offset + 1) & 0xFF,
+                    get(data, mask, offset + 2) & 0xFF);
+        }
+    }
+
+    static class StringDecoder extends SimpleBinaryStateDecoder {
+        StringDecoder(SimpleBinaryChannel channel) {
+            super(channel);
+        }
+
+        @Override
+        protected State decode(ByteBuffer data, int mask, int offset, int length) {
+            byte[] str = new byte[length];
+
+            for (int i = 0; i < length; i++) {
+                str[i] = get(data, mask, offset + i);
+            }
+
+            return new StringType(new String(str));
+        }
+    }
+}
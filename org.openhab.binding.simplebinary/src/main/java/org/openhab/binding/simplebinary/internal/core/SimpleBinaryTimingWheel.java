@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.simplebinary.internal.core;
+
+import java.util.ArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel shared by whole binding. Timeouts are kept in slots selected by expiration tick, so arm and
+ * cancel take constant time. Timeout handles are created once and armed repeatedly.
+ *
+ * Single thread advances the wheel and runs expired tasks. Tasks must be short. Thread is started with first armed
+ * timeout and ends when no timeout is armed for a while.
+ *
+ * @author Vita Tucek
+ * @since 3.4.1
+ */
+public class SimpleBinaryTimingWheel {
+    private static final Logger logger = LoggerFactory.getLogger(SimpleBinaryTimingWheel.class);
+
+    /** tick duration */
+    public static final int TICK_MS = 10;
+    private static final long TICK_NS = TICK_MS * 1_000_000L;
+    /** count of slots (power of two) */
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+    /** time without armed timeout after which thread ends */
+    private static final long IDLE_MS = 60000;
+
+    private static final SimpleBinaryTimingWheel instance = new SimpleBinaryTimingWheel();
+
+    /** slot list heads */
+    private final Timeout[] slots = new Timeout[WHEEL_SIZE];
+    private final long startTime = System.nanoTime();
+    /** last processed tick */
+    private long tick = 0;
+    /** count of armed timeouts */
+    private int pending = 0;
+    private Thread thread = null;
+
+    /**
+     * Return binding wide instance
+     *
+     * @return
+     */
+    public static SimpleBinaryTimingWheel getInstance() {
+        return instance;
+    }
+
+    /**
+     * Create reusable timeout handle
+     *
+     * @param task Task executed on expiration
+     * @return
+     */
+    public Timeout newTimeout(Runnable task) {
+        return new Timeout(this, task);
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startTime) / TICK_NS;
+    }
+
+    /**
+     * Arm timeout. Already armed timeout is rescheduled.
+     *
+     * @param timeout
+     * @param delay Delay in milliseconds
+     */
+    synchronized void schedule(Timeout timeout, long delay) {
+        if (timeout.armed) {
+            unlink(timeout);
+        } else {
+            pending++;
+        }
+
+        long now = currentTick();
+        if (pending == 1 && tick < now) {
+            // nothing armed - skip empty slots
+            tick = now;
+        }
+
+        timeout.deadline = now + Math.max(1, (delay + TICK_MS - 1) / TICK_MS);
+        timeout.armed = true;
+
+        // insert at slot head
+        int index = (int) (timeout.deadline & MASK);
+        timeout.prev = null;
+        timeout.next = slots[index];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        slots[index] = timeout;
+
+        if (thread == null) {
+            thread = new Thread(this::run, "SimpleBinaryTimingWheel");
+            thread.setDaemon(true);
+            thread.start();
+        } else if (pending == 1) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Disarm timeout
+     *
+     * @param timeout
+     * @return False if timeout was not armed (already expired or cancelled)
+     */
+    synchronized boolean cancel(Timeout timeout) {
+        if (!timeout.armed) {
+            return false;
+        }
+
+        unlink(timeout);
+        timeout.armed = false;
+        pending--;
+
+        return true;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[(int) (timeout.deadline & MASK)] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    /**
+     * Return count of armed timeouts
+     *
+     * @return
+     */
+    public synchronized int getPendingCount() {
+        return pending;
+    }
+
+    private void run() {
+        final ArrayList<Timeout> expired = new ArrayList<>();
+
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (pending == 0) {
+                        wait(IDLE_MS);
+
+                        if (pending == 0) {
+                            thread = null;
+                            return;
+                        }
+                    }
+
+                    long now = currentTick();
+
+                    while (tick < now) {
+                        tick++;
+
+                        Timeout t = slots[(int) (tick & MASK)];
+                        while (t != null) {
+                            Timeout next = t.next;
+                            if (t.deadline <= tick) {
+                                unlink(t);
+                                t.armed = false;
+                                pending--;
+                                expired.add(t);
+                            }
+                            t = next;
+                        }
+                    }
+                }
+
+                for (Timeout t : expired) {
+                    try {
+                        t.task.run();
+                    } catch (Exception ex) {
+                        logger.error("Timeout task exception: {}", ex.toString());
+                    }
+                }
+                expired.clear();
+
+                // wait for next tick
+                long sleep = TICK_NS - (System.nanoTime() - startTime) % TICK_NS;
+                Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+            }
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                thread = null;
+            }
+        }
+    }
+
+    /**
+     * Reusable timeout handle
+     *
+     * @author Vita Tucek
+     * @since 3.4.1
+     */
+    public static class Timeout {
+        private final SimpleBinaryTimingWheel wheel;
+        private final Runnable task;
+
+        private Timeout prev, next;
+        private long deadline;
+        private boolean armed = false;
+
+        private Timeout(SimpleBinaryTimingWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        /**
+         * Arm timeout. Already armed timeout is rescheduled.
+         *
+         * @param delay Delay in milliseconds
+         */
+        public void schedule(long delay) {
+            wheel.schedule(this, delay);
+        }
+
+        /**
+         * Disarm timeout
+         *
+         * @return False if timeout was not armed (already expired or cancelled)
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        /**
+         * Check if timeout is armed
+         *
+         * @return
+         */
+        public boolean isArmed() {
+            synchronized (wheel) {
+                return armed;
+            }
+        }
+    }
+}
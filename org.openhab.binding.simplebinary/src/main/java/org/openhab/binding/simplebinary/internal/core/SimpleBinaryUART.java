@@ -14,9 +14,8 @@ import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.Charset;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.TooManyListenersException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
@@ -57,7 +56,7 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
     private OutputStream outputStream;
 
     /** buffer for incoming data */
-    protected final SimpleBinaryByteBuffer inBuffer = new SimpleBinaryByteBuffer(256);
+    protected final SimpleBinaryRingBuffer inBuffer = new SimpleBinaryRingBuffer(256);
     /** store last sent data */
     protected SimpleBinaryItemData lastSentData = null;
     /** Last data receive time **/
@@ -69,12 +68,15 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
     private boolean invertedRTS = false;
     /** Variable for count minimal time before reset RTS signal */
     private long sentTimeTicks = 0;
-    /** Response timeout */
-    protected final int timeout;
-    /** timer measuring answer timeout */
-    protected final Timer timer = new Timer();
-    protected TimerTask timeoutTask = null;
-    private final Object timeoutTaskLock = new Object();
+    /** answer timeout armed in shared timing wheel */
+    protected final SimpleBinaryTimingWheel.Timeout answerTimeout = SimpleBinaryTimingWheel.getInstance()
+            .newTimeout(this::dataTimeouted);
+    /** bus airtime accounting */
+    private final SimpleBinaryBusUsage busUsage;
+    /** current answer timeout [ms] */
+    private volatile int answerTimeoutValue = 0;
+    /** count of timeout postponements while reading is active */
+    private int timeoutPostponed = 0;
     /** flag reading **/
     protected final AtomicInteger readingData = new AtomicInteger();
     /** current reading **/
@@ -93,24 +95,27 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
      * @param forceRTS
      * @param invertedRTS
      * @param timeout
+     * @param minTimeout
      * @param degradeMaxFailuresCount
      * @param degradeTime
+     * @param degradeMaxTime
      * @param discardCommand
      * @param syncCommand
+     * @param maxNewDataFrames
      */
     public SimpleBinaryUART(SerialPortManager serialPortManager, String port, int baud,
             SimpleBinaryPollControl simpleBinaryPollControl, boolean forceRTS, boolean invertedRTS, int pollRate,
-            Charset charset, int timeout, int degradeMaxFailuresCount, int degradeTime, boolean discardCommand,
-            boolean syncCommand) {
-        super(port, simpleBinaryPollControl, pollRate, charset, timeout, degradeMaxFailuresCount, degradeTime,
-                discardCommand, syncCommand);
+            Charset charset, int timeout, int minTimeout, int degradeMaxFailuresCount, int degradeTime,
+            int degradeMaxTime, boolean discardCommand, boolean syncCommand, int maxNewDataFrames) {
+        super(port, simpleBinaryPollControl, pollRate, charset, timeout, minTimeout, degradeMaxFailuresCount,
+                degradeTime, degradeMaxTime, discardCommand, syncCommand, maxNewDataFrames);
 
         this.baud = baud;
+        this.busUsage = new SimpleBinaryBusUsage(baud);
         // IFDEF_OH3.0 //
         this.forceRTS = forceRTS;
         this.invertedRTS = invertedRTS;
         // IFDEF_OH3.0
-        this.timeout = timeout;
         this.serialPortManager = serialPortManager;
     }
 
@@ -122,7 +127,7 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
 
         super.dispose();
 
-        timer.cancel();
+        answerTimeout.cancel();
     }
 
     /**
@@ -358,7 +363,8 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
                     SimpleBinaryProtocol.arrayToString(data.getData(), data.getData().length));
         }
 
-        if (compareAndSetWaitingForAnswer()) {
+        // sending of request takes its time on slow line
+        if (compareAndSetWaitingForAnswer(getRequestTimeout(data.getDeviceId()) + getAirtime(data.getData().length))) {
             try {
                 // set RTS
                 if (this.forceRTS) {
@@ -373,6 +379,7 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
                 }
 
                 // write string to serial port
+                busUsage.frameSent(data.getDeviceId(), data.getData().length);
                 outputStream.write(data.getData());
                 outputStream.flush();
 
@@ -457,69 +464,74 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
                 readingDataValue = readingData.incrementAndGet();
 
                 try {
-                    while (inputStream.available() > 0) {
-                        if (!readIncomingData()) {
-                            break;
+                    boolean dataLeft;
+
+                    do {
+                        while (inputStream.available() > 0) {
+                            if (!readIncomingData()) {
+                                break;
+                            }
                         }
-                    }
 
-                    // check data
-                    // check minimum length
-                    while (inBuffer.position() > 3) {
-                        // check if received data has valid address (same as sent data)
-                        if (lastSentData != null && !checkDeviceID(inBuffer, getLastSentData().getDeviceId())) {
-                            logger.error("{} - Address not valid: received/sent={}/{}", this.toString(),
-                                    getDeviceID(inBuffer), getLastSentData().getDeviceId());
-                            // flip buffer
-                            inBuffer.flip();
-                            // print details
-                            printCommunicationInfo(inBuffer, lastSentData);
-                            // clear buffer
-                            inBuffer.clear();
+                        // check data
+                        // check minimum length
+                        while (inBuffer.size() > 3) {
+                            // check if received data has valid address (same as sent data)
+                            if (lastSentData != null && !checkDeviceID(inBuffer, getLastSentData().getDeviceId())) {
+                                logger.error("{} - Address not valid: received/sent={}/{}", this.toString(),
+                                        getDeviceID(inBuffer), getLastSentData().getDeviceId());
+                                // print details
+                                printCommunicationInfo(inBuffer, lastSentData);
+                                // clear buffer
+                                inBuffer.clear();
 
-                            logger.warn("{} - Address not valid: input buffer cleared", this.toString());
+                                logger.warn("{} - Address not valid: input buffer cleared", this.toString());
 
-                            // set state
-                            setDeviceState(getLastSentData().getDeviceId(), DeviceStates.DATA_ERROR_ADDRESS);
+                                // set state
+                                setDeviceState(getLastSentData().getDeviceId(), DeviceStates.DATA_ERROR_ADDRESS);
 
-                            return;
-                        }
+                                return;
+                            }
 
-                        int r = processData(inBuffer, getLastSentData());
+                            int r = processData(inBuffer, getLastSentData());
+
+                            if (r > 0 || r == ProcessDataResult.INVALID_CRC || r == ProcessDataResult.BAD_CONFIG
+                                    || r == ProcessDataResult.NO_VALID_ADDRESS
+                                    || r == ProcessDataResult.UNKNOWN_MESSAGE) {
+                                // waiting for answer and send block
+                                cancelWaitingForAnswer();
+                                busUsage.answered();
+                                // complete request
+                                notifyDevice(getLastSentData().getDeviceId(), inBuffer.getMessageType());
+                            } else if (r == ProcessDataResult.DATA_NOT_COMPLETED
+                                    || r == ProcessDataResult.PROCESSING_ERROR) {
+                                break;
+                            } else {
+                                logger.warn("{} - Unexpected return code from processData(). Code=0x{}.",
+                                        this.toString(), Integer.toHexString(r));
+                            }
 
-                        if (r > 0 || r == ProcessDataResult.INVALID_CRC || r == ProcessDataResult.BAD_CONFIG
-                                || r == ProcessDataResult.NO_VALID_ADDRESS || r == ProcessDataResult.UNKNOWN_MESSAGE) {
-                            // waiting for answer and send block
-                            cancelWaitingForAnswer();
-                            // notify device
-                            if (devices.containsKey(getLastSentData().getDeviceId())) {
-                                synchronized (devices.get(getLastSentData().getDeviceId())) {
-                                    devices.get(getLastSentData().getDeviceId()).notify();
+                            // check for new data
+                            while (inputStream.available() > 0) {
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug("{} - another new data - {}bytes", this.toString(),
+                                            inputStream.available());
+                                }
+                                if (!readIncomingData()) {
+                                    break;
                                 }
                             }
-                        } else if (r == ProcessDataResult.DATA_NOT_COMPLETED
-                                || r == ProcessDataResult.PROCESSING_ERROR) {
-                            break;
-                        } else {
-                            logger.warn("{} - Unexpected return code from processData(). Code=0x{}.", this.toString(),
-                                    Integer.toHexString(r));
                         }
 
-                        // check for new data
-                        while (inputStream.available() > 0) {
-                            if (logger.isDebugEnabled()) {
-                                logger.debug("{} - another new data - {}bytes", this.toString(),
-                                        inputStream.available());
-                            }
-                            if (!readIncomingData()) {
-                                break;
-                            }
+                        dataLeft = inputStream.available() > 0;
+
+                        if (dataLeft && inBuffer.free() == 0) {
+                            // buffer is full of incomplete data - drop them to be able to receive rest of stream
+                            overrunBytes.addAndGet(inBuffer.size());
+                            logger.error("{} - Buffer overrun. {}B dropped", toString(), inBuffer.size());
+                            inBuffer.clear();
                         }
-                    }
-                    if (inputStream.available() > 0) {
-                        logger.warn("{} - Still data in input buffer with size {}B", toString(),
-                                inputStream.available());
-                    }
+                    } while (dataLeft);
                 } catch (IOException e) {
                     logger.error("{} - Error receiving data: {}", toString(), e.getMessage());
                 } catch (Exception ex) {
@@ -536,27 +548,29 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
     }
 
     /**
-     * Read data from serial port buffer
+     * Read available data from serial port buffer directly into input buffer
      *
+     * @return False if nothing was read (no data or input buffer is full)
      * @throws IOException
-     * @throws ModeChangeException
      */
-    private boolean readIncomingData() throws IOException, ModeChangeException {
+    private boolean readIncomingData() throws IOException {
+        int start = inBuffer.size();
+        int bytes = inBuffer.readFrom(inputStream, inputStream.available());
 
-        byte[] readBuffer = new byte[32];
-        int bytes = inputStream.read(readBuffer);
+        if (bytes <= 0) {
+            return false;
+        }
 
         receiveTime = System.currentTimeMillis();
-
-        if (logger.isDebugEnabled()) {
-            logger.debug("{} - received: {}", toString(), SimpleBinaryProtocol.arrayToString(readBuffer, bytes));
+        if (waitingForAnswer.get()) {
+            // answer is coming - long frame could take longer than timeout on slow line
+            answerTimeout.schedule(answerTimeoutValue);
         }
+        busUsage.bytesReceived(lastSentData != null ? lastSentData.getDeviceId() : -1, bytes);
 
-        if (bytes + inBuffer.position() >= inBuffer.capacity()) {
-            logger.error("{} - Buffer overrun", toString());
-            return false;
-        } else {
-            inBuffer.put(readBuffer, 0, bytes);
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - received: {}", toString(),
+                    SimpleBinaryProtocol.arrayToString(inBuffer.toArray(start, bytes), bytes));
         }
 
         return true;
@@ -567,8 +581,8 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
      *
      */
     @Override
-    public void checkNewData() {
-        super.checkNewData();
+    public CompletableFuture<Void> checkNewData() {
+        return super.checkNewData();
     }
 
     @Override
@@ -576,30 +590,52 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
         return "Port " + deviceID;
     }
 
+    /**
+     * Return time needed to transfer data on the line
+     *
+     * @param bytes
+     * @return Time [ms]
+     */
+    private int getAirtime(int bytes) {
+        return baud > 0 ? (int) Math.ceil(bytes * SimpleBinaryBusUsage.BITS_PER_BYTE * 1000.0 / baud) : 0;
+    }
+
+    @Override
+    protected int getRequestBackstop(SimpleBinaryDevice device, SimpleBinaryItemData data) {
+        // answer timeout is restarted by every received byte - longest answer must fit
+        return getRequestTimeout(device) + getAirtime(data.getData().length + inBuffer.capacity())
+                + REQUEST_TIMEOUT_RESERVE;
+    }
+
+    @Override
+    protected void metricsPeriodFinished(long period) {
+        final SimpleBinaryBusUsage.Summary usage = busUsage.takeSummary(period);
+
+        if (period == 0) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} - Bus utilization {}%, idle gap {}ms, lost by timeouts {}%, device airtime [ms] {}",
+                    toString(), usage.utilization, String.format("%.1f", usage.idleGap), usage.timeoutLoss,
+                    usage.deviceAirtime);
+        }
+        if (onBusUsage != null) {
+            onBusUsage.onBusUsageUpdated(usage.utilization, usage.idleGap, usage.timeoutLoss);
+        }
+    }
+
     /**
      * Set waiting task for answer for slave device if waitingForAnswer not set.
      *
      * Return true if flag is set
+     *
+     * @param timeout Answer timeout [ms]
      */
-    protected boolean compareAndSetWaitingForAnswer() {
+    protected boolean compareAndSetWaitingForAnswer(int timeout) {
         if (waitingForAnswer.compareAndSet(false, true)) {
-            synchronized (timeoutTaskLock) {
-                timeoutTask = new TimerTask() {
-                    @Override
-                    public void run() {
-                        dataTimeouted();
-                    }
-                };
-
-                try {
-                    timer.schedule(timeoutTask, timeout);
-                } catch (IllegalStateException ex) {
-                    logger.warn("{} - Cannot create timeout task. Task throw IllegalStateException. Thread={}",
-                            this.toString(), Thread.currentThread().getId());
-                    waitingForAnswer.set(false);
-                    return false;
-                }
-            }
+            timeoutPostponed = 0;
+            answerTimeoutValue = timeout;
+            answerTimeout.schedule(timeout);
 
             return true;
         } else {
@@ -617,38 +653,29 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
             return;
         }
 
-        synchronized (timeoutTaskLock) {
-            if (timeoutTask != null) {
-                if (timeoutTask.cancel()) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("{} - Device{} - timeout task cancelled. Thread={}", this.toString(),
-                                this.getLastSentData().getDeviceId(), Thread.currentThread().getId());
-                    }
-                } else {
-                    logger.warn("{} - Device{} - timeout task already cancelled. Thread={}", this.toString(),
-                            this.getLastSentData().getDeviceId(), Thread.currentThread().getId());
-                }
-                timeoutTask = null;
+        if (answerTimeout.cancel()) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("{} - Device{} - timeout task cancelled. Thread={}", this.toString(),
+                        this.getLastSentData().getDeviceId(), Thread.currentThread().getId());
             }
+        } else {
+            logger.warn("{} - Device{} - timeout task already cancelled. Thread={}", this.toString(),
+                    this.getLastSentData().getDeviceId(), Thread.currentThread().getId());
         }
     }
 
     /**
-     * Method processed after waiting for answer is timeouted
+     * Method processed after waiting for answer is timeouted. Runs in timing wheel thread so it must not block.
      */
     protected void dataTimeouted() {
         int address = this.getLastSentData().getDeviceId();
-        int timeout = 5;
 
-        while (readingData.get() > 0 && timeout-- > 0) {
+        if (readingData.get() > 0 && timeoutPostponed++ < 5) {
             logger.warn("{} - Device{} - Receiving data timeouted but reading still active ({}). Thread={}",
                     this.toString(), address, readingData.get(), Thread.currentThread().getId());
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                logger.error("{} - dataTimeouted() Thread.sleep() error. Thread={}", this.toString(),
-                        Thread.currentThread().getId());
-            }
+            // check again later
+            answerTimeout.schedule(100);
+            return;
         }
 
         if (!waitingForAnswer.compareAndSet(true, false)) {
@@ -660,10 +687,11 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
         logger.warn("{} - Device{} - Receiving data timeouted. Thread={}", this.toString(), address,
                 Thread.currentThread().getId());
 
+        busUsage.timeouted();
+
         setDeviceState(address, DeviceStates.NOT_RESPONDING);
 
-        inBuffer.flip();
-        if (inBuffer.remaining() > 0) {
+        if (!inBuffer.isEmpty()) {
             // print details
             printCommunicationInfo(inBuffer, lastSentData);
         }
@@ -673,10 +701,7 @@ public class SimpleBinaryUART extends SimpleBinaryGenericDevice implements Seria
 
         inBuffer.clear();
 
-        if (devices.containsKey(getLastSentData().getDeviceId())) {
-            synchronized (devices.get(getLastSentData().getDeviceId())) {
-                devices.get(getLastSentData().getDeviceId()).notify();
-            }
-        }
+        // no answer will come
+        cancelRequests(address);
     }
 }
@@ -61,7 +61,8 @@ public class SimpleBinaryBridgeHandler extends BaseBridgeHandler {
     /** device status channels */
     public final Map<ChannelUID, SimpleBinaryChannelStatus> statusChannels = new LinkedHashMap<ChannelUID, SimpleBinaryChannelStatus>();
     /** bridge channels */
-    protected @Nullable ChannelUID chVersion, chTagCount, chRequests, chBytes, chCycleTime;
+    protected @Nullable ChannelUID chVersion, chTagCount, chRequests, chBytes, chCycleTime, chPollIdle,
+            chOverrunBytes, chPollLatency, chPollLatencyMax, chBusUtilization, chBusIdleGap, chTimeoutLoss;
     /** channels count */
     private int channelCount = 0;
     /** Initial scheduler delay */
@@ -82,6 +83,22 @@ public class SimpleBinaryBridgeHandler extends BaseBridgeHandler {
                 chBytes = channel.getUID();
             } else if (channel.getChannelTypeUID().equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_CYCLE_TIME)) {
                 chCycleTime = channel.getUID();
+            } else if (channel.getChannelTypeUID().equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_POLL_IDLE)) {
+                chPollIdle = channel.getUID();
+            } else if (channel.getChannelTypeUID().equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_OVERRUN_BYTES)) {
+                chOverrunBytes = channel.getUID();
+            } else if (channel.getChannelTypeUID().equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_POLL_LATENCY)) {
+                chPollLatency = channel.getUID();
+            } else if (channel.getChannelTypeUID()
+                    .equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_POLL_LATENCY_MAX)) {
+                chPollLatencyMax = channel.getUID();
+            } else if (channel.getChannelTypeUID()
+                    .equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_BUS_UTILIZATION)) {
+                chBusUtilization = channel.getUID();
+            } else if (channel.getChannelTypeUID().equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_BUS_IDLE_GAP)) {
+                chBusIdleGap = channel.getUID();
+            } else if (channel.getChannelTypeUID().equals(SimpleBinaryBindingConstants.CHANNEL_TYPE_TIMEOUT_LOSS)) {
+                chTimeoutLoss = channel.getUID();
             }
         });
     }
@@ -147,12 +164,13 @@ public class SimpleBinaryBridgeHandler extends BaseBridgeHandler {
             }
         });
 
-        connection.onMetricsUpdated((requests, bytes) -> {
+        connection.onMetricsUpdated((requests, bytes, overrunBytes) -> {
             if (disposed) {
                 return;
             }
             updateState(chRequests, new DecimalType((Number) requests));
             updateState(chBytes, new DecimalType((Number) bytes));
+            updateState(chOverrunBytes, new DecimalType((Number) overrunBytes));
         });
 
         connection.onCycleTimeUpdated((duration) -> {
@@ -162,6 +180,30 @@ public class SimpleBinaryBridgeHandler extends BaseBridgeHandler {
             updateState(chCycleTime, new DecimalType((Number) duration));
         });
 
+        connection.onPollIdleUpdated((idle) -> {
+            if (disposed) {
+                return;
+            }
+            updateState(chPollIdle, new DecimalType((Number) idle));
+        });
+
+        connection.onPollLatencyUpdated((p99, max) -> {
+            if (disposed) {
+                return;
+            }
+            updateState(chPollLatency, new DecimalType((Number) p99));
+            updateState(chPollLatencyMax, new DecimalType((Number) max));
+        });
+
+        connection.onBusUsageUpdated((utilization, idleGap, timeoutLoss) -> {
+            if (disposed) {
+                return;
+            }
+            updateState(chBusUtilization, new DecimalType((Number) utilization));
+            updateState(chBusIdleGap, new DecimalType((Number) idleGap));
+            updateState(chTimeoutLoss, new DecimalType((Number) timeoutLoss));
+        });
+
         connection.onDeviceStateUpdated((deviceId, state) -> {
             Set<SimpleBinaryChannelStatus> channels = statusChannels.values().stream()
                     .filter(p -> p.deviceId == deviceId).collect(Collectors.toSet());
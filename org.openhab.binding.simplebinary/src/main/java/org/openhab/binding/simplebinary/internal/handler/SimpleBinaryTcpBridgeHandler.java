@@ -17,7 +17,11 @@ import java.nio.charset.Charset;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.simplebinary.internal.config.SimpleBinaryTcpConfiguration;
+import org.openhab.binding.simplebinary.internal.core.SimpleBinaryBufferPool;
 import org.openhab.binding.simplebinary.internal.core.SimpleBinaryIP;
+import org.openhab.binding.simplebinary.internal.core.SimpleBinaryPollControl;
+import org.openhab.binding.simplebinary.internal.core.SimpleBinaryProtocol;
+import org.openhab.binding.simplebinary.internal.core.SimpleBinarySendQueueOverflow;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
@@ -46,9 +50,11 @@ public class SimpleBinaryTcpBridgeHandler extends SimpleBinaryBridgeHandler {
         config = getConfigAs(SimpleBinaryTcpConfiguration.class);
 
         logger.debug(
-                "{} - Bridge configuration: Host/IP={},Port={},Charset={},Timeout={},DegradeMaxFailuresCount={},DegradeTime={},DiscardCommand={},SyncCommand={}",
-                getThing().getLabel(), config.address, config.port, config.charset, config.timeout,
-                config.degradeMaxFailuresCount, config.degradeTime, config.discardCommand, config.syncCommand);
+                "{} - Bridge configuration: Host/IP={},Port={},PollControl={},PollRate={},ConcurrentPolling={},Charset={},Timeout={},DegradeMaxFailuresCount={},DegradeTime={},DiscardCommand={},SyncCommand={},MaxFrameSize={},SendQueueSize={},SendQueueOverflow={}",
+                getThing().getLabel(), config.address, config.port, config.pollControl, config.pollRate,
+                config.concurrentPolling, config.charset, config.timeout, config.degradeMaxFailuresCount,
+                config.degradeTime, config.discardCommand, config.syncCommand, config.maxFrameSize,
+                config.sendQueueSize, config.sendQueueOverflow);
 
         // configuration validation
         boolean valid = true;
@@ -59,6 +65,50 @@ public class SimpleBinaryTcpBridgeHandler extends SimpleBinaryBridgeHandler {
             return;
         }
 
+        if (config.pollControl == null || !(config.pollControl.equals("NONE") || config.pollControl.equals("ONCHANGE")
+                || config.pollControl.equals("ONSCAN"))) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Invalid Pool Control.");
+            valid = false;
+            return;
+        }
+
+        if (config.pollRate <= 0) {
+            config.pollRate = 1000;
+        }
+
+        if (config.maxFrameSize < SimpleBinaryBufferPool.MIN_CAPACITY) {
+            config.maxFrameSize = SimpleBinaryBufferPool.MIN_CAPACITY;
+        }
+
+        if (config.sendQueueSize < 1) {
+            config.sendQueueSize = 1;
+        }
+
+        if (config.requestWindow < 1) {
+            config.requestWindow = 1;
+        } else if (config.requestWindow > SimpleBinaryProtocol.MAX_REQUEST_WINDOW) {
+            config.requestWindow = SimpleBinaryProtocol.MAX_REQUEST_WINDOW;
+        }
+
+        if (config.maxNewDataFrames < 0) {
+            config.maxNewDataFrames = 0;
+        }
+
+        if (config.minTimeout > config.timeout) {
+            config.minTimeout = config.timeout;
+        }
+
+        if (config.degradeMaxTime < config.degradeTime) {
+            config.degradeMaxTime = config.degradeTime;
+        }
+
+        if (config.sendQueueOverflow == null || !(config.sendQueueOverflow.equals("REJECT")
+                || config.sendQueueOverflow.equals("DROP_OLDEST"))) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Invalid send queue overflow.");
+            valid = false;
+            return;
+        }
+
         Charset charset;
         if (config.charset == null || config.charset.isBlank()) {
             charset = Charset.defaultCharset();
@@ -78,8 +128,13 @@ public class SimpleBinaryTcpBridgeHandler extends SimpleBinaryBridgeHandler {
                     config.address, config.port, config.charset);
         }
 
-        connection = new SimpleBinaryIP(config.address, config.port, charset, config.timeout,
-                config.degradeMaxFailuresCount, config.degradeTime, config.discardCommand, config.syncCommand);
+        connection = new SimpleBinaryIP(config.address, config.port,
+                SimpleBinaryPollControl.valueOf(config.pollControl), config.pollRate, config.concurrentPolling,
+                charset, config.timeout, config.minTimeout,
+                config.degradeMaxFailuresCount, config.degradeTime, config.degradeMaxTime, config.discardCommand,
+                config.syncCommand, config.maxFrameSize, config.sendQueueSize,
+                SimpleBinarySendQueueOverflow.valueOf(config.sendQueueOverflow), config.requestWindow,
+                config.maxNewDataFrames);
 
         super.initialize();
     }
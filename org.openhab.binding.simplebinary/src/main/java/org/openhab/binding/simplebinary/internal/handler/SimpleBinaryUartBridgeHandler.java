@@ -106,6 +106,18 @@ public class SimpleBinaryUartBridgeHandler extends SimpleBinaryBridgeHandler {
             config.degradeTime = 0;
         }
 
+        if (config.maxNewDataFrames < 0) {
+            config.maxNewDataFrames = 0;
+        }
+
+        if (config.minTimeout > config.timeout) {
+            config.minTimeout = config.timeout;
+        }
+
+        if (config.degradeMaxTime < config.degradeTime) {
+            config.degradeMaxTime = config.degradeTime;
+        }
+
         if (!valid) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR);
             logger.error(
@@ -116,8 +128,9 @@ public class SimpleBinaryUartBridgeHandler extends SimpleBinaryBridgeHandler {
 
         connection = new SimpleBinaryUART(serialPortManager, config.port, config.baudRate,
                 SimpleBinaryPollControl.valueOf(config.pollControl), config.forceRTS, config.invertedRTS,
-                config.pollRate, charset, config.timeout, config.degradeMaxFailuresCount, config.degradeTime,
-                config.discardCommand, config.syncCommand);
+                config.pollRate, charset, config.timeout, config.minTimeout, config.degradeMaxFailuresCount,
+                config.degradeTime, config.degradeMaxTime, config.discardCommand, config.syncCommand,
+                config.maxNewDataFrames);
 
         super.initialize();
     }